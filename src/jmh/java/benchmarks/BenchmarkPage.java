@@ -0,0 +1,30 @@
+package benchmarks;
+
+import base.BasePage;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindBy;
+
+/**
+ * BenchmarkPage - Minimal page object exposing BasePage's protected actions to the benchmarks
+ */
+public class BenchmarkPage extends BasePage {
+
+    @FindBy(name = "username")
+    private WebElement usernameField;
+
+    @FindBy(css = "input[type='submit'][value='Log In']")
+    private WebElement loginButton;
+
+    public BenchmarkPage(WebDriver driver) {
+        super(driver);
+    }
+
+    public void click() {
+        clickElement(loginButton);
+    }
+
+    public void type(String text) {
+        enterText(usernameField, text);
+    }
+}
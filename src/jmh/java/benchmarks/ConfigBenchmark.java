@@ -0,0 +1,53 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.ConfigReader;
+import utils.TestDataReader;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConfigBenchmark - Lookups in the config and test data files
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfigBenchmark {
+
+    @Benchmark
+    public String configProperty() {
+        return ConfigReader.getProperty("base.url");
+    }
+
+    @Benchmark
+    public String configPropertyDefault() {
+        return ConfigReader.getProperty("benchmark.missing.key", "default");
+    }
+
+    @Benchmark
+    public Duration configTypedField() {
+        return ConfigReader.get().getExplicitWait();
+    }
+
+    @Benchmark
+    public int configTypedLookup() {
+        return ConfigReader.get().getInt("screenshot.writer.queue");
+    }
+
+    @Benchmark
+    public String testData() {
+        return TestDataReader.getData("valid.username");
+    }
+}
@@ -0,0 +1,44 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pages.BillPayPage;
+import pages.HomePage;
+import pages.RegisterPage;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PageObjectBenchmark - Cost of constructing page objects, dominated by PageFactory.initElements
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PageObjectBenchmark {
+    private final FakeWebDriver driver = new FakeWebDriver();
+
+    @Benchmark
+    public HomePage homePage() {
+        return new HomePage(driver);
+    }
+
+    @Benchmark
+    public RegisterPage registerPage() {
+        return new RegisterPage(driver);
+    }
+
+    @Benchmark
+    public BillPayPage billPayPage() {
+        return new BillPayPage(driver);
+    }
+}
@@ -0,0 +1,57 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.ConfigReader;
+import utils.ScreenshotUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * ScreenshotBenchmark - Cost of capturing a screenshot and handing it to the writer pool
+ * The fake driver returns the same image every time, so this measures the deduplicated path
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ScreenshotBenchmark {
+    private final FakeWebDriver driver = new FakeWebDriver();
+    private Path screenshotDir;
+
+    @Setup(Level.Trial)
+    public void useTemporaryStore() throws IOException {
+        screenshotDir = Files.createTempDirectory("jmh-screenshots");
+        ConfigReader.override("screenshot.dir", screenshotDir.toString());
+    }
+
+    @Benchmark
+    public String captureScreenshot() {
+        return ScreenshotUtils.captureScreenshot(driver, "jmh_benchmark");
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteScreenshots() throws IOException {
+        ScreenshotUtils.flush();
+        try (Stream<Path> files = Files.walk(screenshotDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
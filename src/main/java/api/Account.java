@@ -0,0 +1,41 @@
+package api;
+
+import java.math.BigDecimal;
+
+/**
+ * Account - Bank account as returned by the ParaBank REST API
+ */
+public class Account {
+    private final long id;
+    private final long customerId;
+    private final AccountType type;
+    private final BigDecimal balance;
+
+    public Account(long id, long customerId, AccountType type, BigDecimal balance) {
+        this.id = id;
+        this.customerId = customerId;
+        this.type = type;
+        this.balance = balance;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getCustomerId() {
+        return customerId;
+    }
+
+    public AccountType getType() {
+        return type;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    @Override
+    public String toString() {
+        return "Account{id=" + id + ", type=" + type + ", balance=" + balance + "}";
+    }
+}
@@ -0,0 +1,216 @@
+package api;
+
+import listeners.ParallelExecutionListener;
+import utils.Config;
+import utils.ConfigReader;
+import utils.LoggerUtil;
+import utils.TestDataReader;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AccountPool - Pre-provisioned customers leased to money-movement tests, one test per customer
+ *
+ * try (AccountPool.Lease lease = AccountPool.lease(AccountRequirement.accounts(2))) {
+ *     homePage.login(lease.getUsername(), lease.getPassword());
+ *     ...
+ * }
+ *
+ * Each distinct requirement has its own pool, topped up in the background to account.pool.size
+ * idle customers (one per worker by default) through the provisioning API. On return every
+ * account is set back to the required balance before the customer is leased again; a customer
+ * whose reset fails is dropped and replaced. Provisioning and resets run on the HTTP client's
+ * async pipeline, so neither holds up the test thread.
+ *
+ * With account.pool.enabled=false every lease is the shared valid.username customer, as before.
+ */
+public class AccountPool {
+    private static final long WAIT_SLICE_MILLIS = 250;
+    private static final Map<AccountRequirement, Bucket> buckets = new ConcurrentHashMap<>();
+    private static volatile ParaBankClient client;
+
+    /**
+     * Check if tests get their own pooled customers
+     */
+    public static boolean isEnabled() {
+        return ConfigReader.get().getBoolean("account.pool.enabled");
+    }
+
+    /**
+     * Lease a customer meeting the requirement, waiting up to account.pool.lease.timeout.seconds
+     */
+    public static Lease lease(AccountRequirement requirement) {
+        if (!isEnabled()) {
+            return new Lease(null, null, TestDataReader.getValidUsername(), TestDataReader.getValidPassword(),
+                    Collections.emptyList());
+        }
+        return buckets.computeIfAbsent(requirement, Bucket::new).lease();
+    }
+
+    /**
+     * Start provisioning customers for a requirement ahead of the first lease
+     */
+    public static void prefill(AccountRequirement requirement) {
+        if (isEnabled()) {
+            buckets.computeIfAbsent(requirement, Bucket::new).replenish();
+        }
+    }
+
+    private static ParaBankClient client() {
+        if (client == null) {
+            synchronized (AccountPool.class) {
+                if (client == null) {
+                    client = new ParaBankClient();
+                }
+            }
+        }
+        return client;
+    }
+
+    /**
+     * The idle customers for one requirement
+     */
+    private static class Bucket {
+        private final AccountRequirement requirement;
+        private final LinkedBlockingDeque<ProvisionedCustomer> idle = new LinkedBlockingDeque<>();
+        private final AtomicInteger provisioning = new AtomicInteger();
+        private final int target;
+        private volatile Throwable lastFailure;
+
+        private Bucket(AccountRequirement requirement) {
+            this.requirement = requirement;
+            this.target = ConfigReader.get().getInt("account.pool.size", ParallelExecutionListener.getWorkerCount());
+        }
+
+        private Lease lease() {
+            Config config = ConfigReader.get();
+            long deadline = System.nanoTime()
+                    + TimeUnit.SECONDS.toNanos(config.getInt("account.pool.lease.timeout.seconds"));
+            ProvisionedCustomer customer = idle.pollFirst();
+            if (customer == null) {
+                // Never wait on another test's return: make one more customer for this lease
+                provisionOne();
+            }
+            try {
+                while (customer == null) {
+                    customer = idle.pollFirst(WAIT_SLICE_MILLIS, TimeUnit.MILLISECONDS);
+                    if (customer == null && provisioning.get() == 0 && lastFailure != null) {
+                        throw new RuntimeException("Could not provision a customer with " + requirement, lastFailure);
+                    }
+                    if (customer == null && System.nanoTime() > deadline) {
+                        throw new RuntimeException("Timed out leasing a customer with " + requirement);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while leasing a customer with " + requirement, e);
+            }
+            replenish();
+            LoggerUtil.info("Leased customer {} ({})", customer.getUsername(), requirement);
+            return new Lease(this, customer, customer.getUsername(), customer.getPassword(), customer.getAccounts());
+        }
+
+        /**
+         * Provision in the background until idle plus in-flight customers reach the target
+         */
+        private void replenish() {
+            while (idle.size() + provisioning.get() < target) {
+                provisionOne();
+            }
+        }
+
+        private void provisionOne() {
+            provisioning.incrementAndGet();
+            requirement.fixture(client()).provisionAsync().whenComplete((customer, error) -> {
+                if (error != null) {
+                    lastFailure = error;
+                    LoggerUtil.error("Failed to provision pooled customer: {}", error.getMessage());
+                } else {
+                    lastFailure = null;
+                    idle.addLast(customer);
+                }
+                provisioning.decrementAndGet();
+            });
+        }
+
+        /**
+         * Reset every account to the required balance, then make the customer leasable again
+         */
+        private void giveBack(ProvisionedCustomer customer) {
+            BigDecimal balance = requirement.getMinimumBalance();
+            CompletableFuture<?>[] resets = customer.getAccounts().stream()
+                    .map(account -> client().setBalanceAsync(account.getId(), balance))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(resets).whenComplete((done, error) -> {
+                if (error != null) {
+                    LoggerUtil.warn("Dropping pooled customer {} after a failed reset", customer.getUsername());
+                    replenish();
+                } else {
+                    idle.addLast(customer);
+                }
+            });
+        }
+    }
+
+    /**
+     * A customer held by one test until closed
+     */
+    public static class Lease implements AutoCloseable {
+        private final Bucket bucket;
+        private final ProvisionedCustomer customer;
+        private final String username;
+        private final String password;
+        private final List<Account> accounts;
+        private boolean closed;
+
+        private Lease(Bucket bucket, ProvisionedCustomer customer, String username, String password,
+                      List<Account> accounts) {
+            this.bucket = bucket;
+            this.customer = customer;
+            this.username = username;
+            this.password = password;
+            this.accounts = accounts;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        /**
+         * Get the customer's accounts in creation order; empty for the shared customer
+         */
+        public List<Account> getAccounts() {
+            return accounts;
+        }
+
+        /**
+         * Check if this is the shared fallback customer, whose balances other tests also move
+         */
+        public boolean isShared() {
+            return bucket == null;
+        }
+
+        /**
+         * Return the customer to the pool, where its balances are reset before the next lease
+         */
+        @Override
+        public void close() {
+            if (!closed && bucket != null) {
+                bucket.giveBack(customer);
+            }
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package api;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+
+/**
+ * AccountRequirement - What a test needs from a leased customer, e.g. two accounts with at least $500
+ *
+ * AccountRequirement.accounts(2).withBalanceAtLeast(new BigDecimal("500"))
+ *
+ * Requirements are values: equal requirements share one pool of customers
+ */
+public final class AccountRequirement {
+    private final int accountCount;
+    private final BigDecimal minimumBalance;
+
+    private AccountRequirement(int accountCount, BigDecimal minimumBalance) {
+        if (accountCount < 1) {
+            throw new IllegalArgumentException("A customer has at least one account: " + accountCount);
+        }
+        if (minimumBalance.signum() < 0) {
+            throw new IllegalArgumentException("Minimum balance must not be negative: " + minimumBalance);
+        }
+        this.accountCount = accountCount;
+        this.minimumBalance = minimumBalance.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Require a customer with this many accounts, each holding the default $1000
+     */
+    public static AccountRequirement accounts(int accountCount) {
+        return new AccountRequirement(accountCount, new BigDecimal("1000"));
+    }
+
+    /**
+     * Require every account to start with at least this balance
+     */
+    public AccountRequirement withBalanceAtLeast(BigDecimal minimumBalance) {
+        return new AccountRequirement(accountCount, minimumBalance);
+    }
+
+    public int getAccountCount() {
+        return accountCount;
+    }
+
+    public BigDecimal getMinimumBalance() {
+        return minimumBalance;
+    }
+
+    /**
+     * Build the fixture that provisions a customer meeting this requirement
+     */
+    CustomerFixture fixture(ParaBankClient client) {
+        CustomerFixture fixture = CustomerFixture.customer(client).withPrimaryBalance(minimumBalance);
+        for (int i = 1; i < accountCount; i++) {
+            fixture.withAccount(AccountType.CHECKING, minimumBalance);
+        }
+        return fixture;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof AccountRequirement)) {
+            return false;
+        }
+        AccountRequirement that = (AccountRequirement) other;
+        return accountCount == that.accountCount && minimumBalance.equals(that.minimumBalance);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(accountCount, minimumBalance);
+    }
+
+    @Override
+    public String toString() {
+        return accountCount + " account(s) with at least $" + minimumBalance;
+    }
+}
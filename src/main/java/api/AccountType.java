@@ -0,0 +1,32 @@
+package api;
+
+/**
+ * AccountType - ParaBank account types with their REST type codes
+ */
+public enum AccountType {
+    CHECKING(0),
+    SAVINGS(1),
+    LOAN(2);
+
+    private final int code;
+
+    AccountType(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * Get the account type with a REST type code
+     */
+    public static AccountType fromCode(int code) {
+        for (AccountType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown account type: " + code);
+    }
+}
@@ -0,0 +1,45 @@
+package api;
+
+/**
+ * Customer - ParaBank customer together with the credentials used to create it
+ */
+public class Customer {
+    private final long id;
+    private final String firstName;
+    private final String lastName;
+    private final String username;
+    private final String password;
+
+    public Customer(long id, String firstName, String lastName, String username, String password) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.username = username;
+        this.password = password;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String toString() {
+        return "Customer{id=" + id + ", username=" + username + "}";
+    }
+}
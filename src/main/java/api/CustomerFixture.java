@@ -0,0 +1,141 @@
+package api;
+
+import utils.TestDataReader;
+import utils.UniqueDataGenerator;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * CustomerFixture - Fluent builder that provisions a customer and its accounts over HTTP
+ *
+ * ProvisionedCustomer customer = CustomerFixture.customer()
+ *         .withPrimaryBalance(new BigDecimal("1000"))
+ *         .withAccount(AccountType.SAVINGS, new BigDecimal("500"))
+ *         .provision();
+ */
+public class CustomerFixture {
+    private final ParaBankClient client;
+    private final List<AccountSpec> extraAccounts = new ArrayList<>();
+    private String firstName = TestDataReader.getRegistrationFirstName();
+    private String lastName = TestDataReader.getRegistrationLastName();
+    private String username;
+    private String password = "Password123";
+    private BigDecimal primaryBalance;
+
+    private CustomerFixture(ParaBankClient client) {
+        this.client = client;
+    }
+
+    /**
+     * Start a fixture against the configured application
+     */
+    public static CustomerFixture customer() {
+        return new CustomerFixture(new ParaBankClient());
+    }
+
+    /**
+     * Start a fixture using an existing client
+     */
+    public static CustomerFixture customer(ParaBankClient client) {
+        return new CustomerFixture(client);
+    }
+
+    public CustomerFixture named(String firstName, String lastName) {
+        this.firstName = firstName;
+        this.lastName = lastName;
+        return this;
+    }
+
+    public CustomerFixture withCredentials(String username, String password) {
+        this.username = username;
+        this.password = password;
+        return this;
+    }
+
+    /**
+     * Set the balance of the account opened on registration
+     */
+    public CustomerFixture withPrimaryBalance(BigDecimal balance) {
+        this.primaryBalance = balance;
+        return this;
+    }
+
+    /**
+     * Open an additional account and bring it to the given balance
+     */
+    public CustomerFixture withAccount(AccountType type, BigDecimal balance) {
+        extraAccounts.add(new AccountSpec(type, balance));
+        return this;
+    }
+
+    /**
+     * Provision the customer without blocking
+     */
+    public CompletableFuture<ProvisionedCustomer> provisionAsync() {
+        String login = username != null ? username : UniqueDataGenerator.username("fx");
+
+        return client.registerAsync(firstName, lastName, login, password).thenCompose(customer ->
+                client.getAccountsAsync(customer.getId()).thenCompose(existing -> {
+                    Account primary = existing.get(0);
+
+                    // New accounts are funded from the primary account, so open them one after another
+                    CompletableFuture<List<Account>> opened = CompletableFuture.completedFuture(new ArrayList<>());
+                    for (AccountSpec spec : extraAccounts) {
+                        opened = opened.thenCompose(accounts -> client
+                                .openAccountAsync(customer.getId(), spec.type, primary.getId())
+                                .thenApply(account -> {
+                                    accounts.add(account);
+                                    return accounts;
+                                }));
+                    }
+
+                    return opened.thenCompose(accounts -> {
+                        // Balances are independent of each other once every account exists
+                        List<CompletableFuture<Void>> adjustments = new ArrayList<>();
+                        for (int i = 0; i < accounts.size(); i++) {
+                            adjustments.add(client.setBalanceAsync(accounts.get(i).getId(), extraAccounts.get(i).balance));
+                        }
+                        if (primaryBalance != null) {
+                            adjustments.add(client.setBalanceAsync(primary.getId(), primaryBalance));
+                        }
+                        return CompletableFuture.allOf(adjustments.toArray(new CompletableFuture<?>[0]));
+                    }).thenCompose(done -> client.getAccountsAsync(customer.getId()))
+                            .thenApply(accounts -> {
+                                accounts.sort(Comparator.comparingLong(Account::getId));
+                                return new ProvisionedCustomer(customer, accounts);
+                            });
+                }));
+    }
+
+    /**
+     * Provision the customer, blocking until every account has its balance
+     */
+    public ProvisionedCustomer provision() {
+        return ParaBankClient.join(provisionAsync());
+    }
+
+    /**
+     * Provision several customers concurrently
+     */
+    public static List<ProvisionedCustomer> provisionAll(List<CustomerFixture> fixtures) {
+        List<CompletableFuture<ProvisionedCustomer>> futures = fixtures.stream()
+                .map(CustomerFixture::provisionAsync)
+                .collect(Collectors.toList());
+        return futures.stream().map(ParaBankClient::join).collect(Collectors.toList());
+    }
+
+    private static class AccountSpec {
+        private final AccountType type;
+        private final BigDecimal balance;
+
+        private AccountSpec(AccountType type, BigDecimal balance) {
+            this.type = type;
+            this.balance = balance;
+        }
+    }
+}
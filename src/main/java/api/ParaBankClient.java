@@ -0,0 +1,298 @@
+package api;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import utils.ConfigReader;
+import utils.LoggerUtil;
+import utils.TestDataReader;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+/**
+ * ParaBankClient - Provisions test data through ParaBank's HTTP endpoints instead of the browser
+ * Customers are registered through the register.htm form; accounts, deposits and balances go
+ * through the services/bank REST API. Every operation has an async variant so fixtures can be
+ * provisioned concurrently.
+ */
+public class ParaBankClient {
+    private final URI appUrl;
+    private final URI servicesUrl;
+    private final Duration timeout;
+    private final HttpClient http;
+
+    public ParaBankClient() {
+        this(URI.create(ConfigReader.getProperty("api.base.url",
+                URI.create(ConfigReader.get().getBaseUrl()).resolve(".").toString())));
+    }
+
+    public ParaBankClient(URI appUrl) {
+        this.appUrl = appUrl.toString().endsWith("/") ? appUrl : URI.create(appUrl + "/");
+        this.servicesUrl = this.appUrl.resolve("services/bank/");
+        this.timeout = Duration.ofSeconds(ConfigReader.get().getInt("api.timeout.seconds"));
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    /**
+     * Register a new customer through the registration form and look up its id
+     */
+    public CompletableFuture<Customer> registerAsync(String firstName, String lastName,
+                                                     String username, String password) {
+        // Registration is session-bound, so each one gets its own cookie jar
+        HttpClient session = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .cookieHandler(new CookieManager())
+                .build();
+
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put("customer.firstName", firstName);
+        form.put("customer.lastName", lastName);
+        form.put("customer.address.street", TestDataReader.getRegistrationAddress());
+        form.put("customer.address.city", TestDataReader.getRegistrationCity());
+        form.put("customer.address.state", TestDataReader.getRegistrationState());
+        form.put("customer.address.zipCode", TestDataReader.getRegistrationZipCode());
+        form.put("customer.phoneNumber", TestDataReader.getRegistrationPhone());
+        form.put("customer.ssn", TestDataReader.getRegistrationSSN());
+        form.put("customer.username", username);
+        form.put("customer.password", password);
+        form.put("repeatedPassword", password);
+
+        HttpRequest openForm = request(appUrl.resolve("register.htm")).GET().build();
+        HttpRequest submit = request(appUrl.resolve("register.htm"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(encode(form)))
+                .build();
+
+        return session.sendAsync(openForm, HttpResponse.BodyHandlers.discarding())
+                .thenCompose(ignored -> session.sendAsync(submit, HttpResponse.BodyHandlers.ofString()))
+                .thenApply(response -> {
+                    String body = response.body();
+                    if (response.statusCode() != 200
+                            || !(body.contains("created successfully") || body.contains("Welcome"))) {
+                        throw new RuntimeException("Registration of " + username + " failed with HTTP "
+                                + response.statusCode());
+                    }
+                    return username;
+                })
+                .thenCompose(registered -> loginAsync(username, password))
+                .thenApply(customer -> {
+                    LoggerUtil.info("Registered customer through API: {}", customer);
+                    return customer;
+                });
+    }
+
+    /**
+     * Look up a customer by credentials
+     */
+    public CompletableFuture<Customer> loginAsync(String username, String password) {
+        return getXml("login/" + encodePath(username) + "/" + encodePath(password))
+                .thenApply(customer -> new Customer(
+                        Long.parseLong(text(customer, "id")),
+                        text(customer, "firstName"),
+                        text(customer, "lastName"),
+                        username,
+                        password));
+    }
+
+    /**
+     * Get all accounts of a customer
+     */
+    public CompletableFuture<List<Account>> getAccountsAsync(long customerId) {
+        return getXml("customers/" + customerId + "/accounts").thenApply(accounts -> {
+            List<Account> result = new ArrayList<>();
+            NodeList nodes = accounts.getElementsByTagName("account");
+            for (int i = 0; i < nodes.getLength(); i++) {
+                result.add(toAccount((Element) nodes.item(i)));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Get one account with its current balance
+     */
+    public CompletableFuture<Account> getAccountAsync(long accountId) {
+        return getXml("accounts/" + accountId).thenApply(ParaBankClient::toAccount);
+    }
+
+    /**
+     * Open a new account for a customer, funded with the bank's minimum from an existing account
+     */
+    public CompletableFuture<Account> openAccountAsync(long customerId, AccountType type, long fromAccountId) {
+        return postXml("createAccount?customerId=" + customerId + "&newAccountType=" + type.getCode()
+                + "&fromAccountId=" + fromAccountId).thenApply(ParaBankClient::toAccount);
+    }
+
+    /**
+     * Deposit funds into an account
+     */
+    public CompletableFuture<Void> depositAsync(long accountId, BigDecimal amount) {
+        return post("deposit?accountId=" + accountId + "&amount=" + amount.toPlainString())
+                .thenAccept(body -> LoggerUtil.debug(body));
+    }
+
+    /**
+     * Withdraw funds from an account
+     */
+    public CompletableFuture<Void> withdrawAsync(long accountId, BigDecimal amount) {
+        return post("withdraw?accountId=" + accountId + "&amount=" + amount.toPlainString())
+                .thenAccept(body -> LoggerUtil.debug(body));
+    }
+
+    /**
+     * Deposit or withdraw the difference between an account's balance and the target
+     */
+    public CompletableFuture<Void> setBalanceAsync(long accountId, BigDecimal target) {
+        return getAccountAsync(accountId).thenCompose(account -> {
+            BigDecimal difference = target.subtract(account.getBalance());
+            int sign = difference.signum();
+            if (sign > 0) {
+                return depositAsync(accountId, difference);
+            } else if (sign < 0) {
+                return withdrawAsync(accountId, difference.negate());
+            }
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
+    public Customer register(String firstName, String lastName, String username, String password) {
+        return join(registerAsync(firstName, lastName, username, password));
+    }
+
+    public Customer login(String username, String password) {
+        return join(loginAsync(username, password));
+    }
+
+    public List<Account> getAccounts(long customerId) {
+        return join(getAccountsAsync(customerId));
+    }
+
+    public Account getAccount(long accountId) {
+        return join(getAccountAsync(accountId));
+    }
+
+    public BigDecimal getBalance(long accountId) {
+        return getAccount(accountId).getBalance();
+    }
+
+    public Account openAccount(long customerId, AccountType type, long fromAccountId) {
+        return join(openAccountAsync(customerId, type, fromAccountId));
+    }
+
+    public void deposit(long accountId, BigDecimal amount) {
+        join(depositAsync(accountId, amount));
+    }
+
+    public void withdraw(long accountId, BigDecimal amount) {
+        join(withdrawAsync(accountId, amount));
+    }
+
+    public void setBalance(long accountId, BigDecimal target) {
+        join(setBalanceAsync(accountId, target));
+    }
+
+    private CompletableFuture<Element> getXml(String path) {
+        HttpRequest request = request(servicesUrl.resolve(path)).header("Accept", "application/xml").GET().build();
+        return send(request).thenApply(ParaBankClient::parse);
+    }
+
+    private CompletableFuture<Element> postXml(String path) {
+        return post(path).thenApply(ParaBankClient::parse);
+    }
+
+    private CompletableFuture<String> post(String path) {
+        HttpRequest request = request(servicesUrl.resolve(path))
+                .header("Accept", "application/xml")
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        return send(request);
+    }
+
+    private CompletableFuture<String> send(HttpRequest request) {
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenApply(response -> {
+            if (response.statusCode() / 100 != 2) {
+                throw new RuntimeException("ParaBank API " + request.method() + " " + request.uri()
+                        + " failed with HTTP " + response.statusCode() + ": " + response.body());
+            }
+            return response.body();
+        });
+    }
+
+    private HttpRequest.Builder request(URI uri) {
+        return HttpRequest.newBuilder(uri).timeout(timeout);
+    }
+
+    private static Account toAccount(Element account) {
+        return new Account(
+                Long.parseLong(text(account, "id")),
+                Long.parseLong(text(account, "customerId")),
+                AccountType.valueOf(text(account, "type")),
+                new BigDecimal(text(account, "balance")));
+    }
+
+    private static Element parse(String xml) {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            Document document = factory.newDocumentBuilder()
+                    .parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+            return document.getDocumentElement();
+        } catch (Exception e) {
+            throw new RuntimeException("Unexpected ParaBank API response: " + xml, e);
+        }
+    }
+
+    private static String text(Element parent, String tag) {
+        NodeList nodes = parent.getElementsByTagName(tag);
+        if (nodes.getLength() == 0) {
+            throw new RuntimeException("Missing <" + tag + "> in ParaBank API response");
+        }
+        return nodes.item(0).getTextContent().trim();
+    }
+
+    private static String encode(Map<String, String> form) {
+        return form.entrySet().stream()
+                .map(entry -> URLEncoder.encode(entry.getKey(), StandardCharsets.UTF_8) + "="
+                        + URLEncoder.encode(entry.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+    }
+
+    private static String encodePath(String segment) {
+        return URLEncoder.encode(segment, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    /**
+     * Wait for a future, rethrowing its failure rather than the CompletionException wrapping it
+     */
+    static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package api;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ProvisionedCustomer - A customer created for a test, with its accounts in creation order
+ * The first account is the one ParaBank opens on registration
+ */
+public class ProvisionedCustomer {
+    private final Customer customer;
+    private final List<Account> accounts;
+
+    public ProvisionedCustomer(Customer customer, List<Account> accounts) {
+        this.customer = customer;
+        this.accounts = Collections.unmodifiableList(accounts);
+    }
+
+    public Customer getCustomer() {
+        return customer;
+    }
+
+    public String getUsername() {
+        return customer.getUsername();
+    }
+
+    public String getPassword() {
+        return customer.getPassword();
+    }
+
+    public List<Account> getAccounts() {
+        return accounts;
+    }
+
+    public Account getAccount(int index) {
+        return accounts.get(index);
+    }
+
+    @Override
+    public String toString() {
+        return "ProvisionedCustomer{" + customer + ", accounts=" + accounts + "}";
+    }
+}
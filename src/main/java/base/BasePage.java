@@ -1,13 +1,24 @@
 package base;
 
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
+import utils.AdaptiveTimeouts;
+import utils.ElementProbe;
 import utils.LoggerUtil;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 /**
  * BasePage - Parent class for all Page Objects
@@ -15,27 +26,89 @@ import java.time.Duration;
  */
 public class BasePage {
     protected WebDriver driver;
-    protected WebDriverWait wait;
-    private static final int TIMEOUT = 15;
+
+    /**
+     * Locates each field from its locator's using/value pair (as findElement would: the first
+     * match in document order), sets the value through the element prototype's native setter
+     * (so framework-bound inputs see the change) and fires input/change like a user edit. Fields
+     * that are missing, hidden, disabled, read-only or not form controls, or whose locator
+     * strategy has no DOM equivalent, are left alone and their indexes returned so the caller can
+     * type into them instead.
+     */
+    private static final String FILL_FORM_SCRIPT =
+            "var locators = arguments[0], values = arguments[1], failed = [];"
+            + "var locate = function (using, value) {"
+            + "  switch (using) {"
+            + "    case 'id': return document.getElementById(value);"
+            + "    case 'name': return document.getElementsByName(value)[0] || null;"
+            + "    case 'css selector': return document.querySelector(value);"
+            + "    case 'class name': return document.getElementsByClassName(value)[0] || null;"
+            + "    case 'tag name': return document.getElementsByTagName(value)[0] || null;"
+            + "    case 'xpath': return document.evaluate(value, document, null,"
+            + "        XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+            + "    default: return null;"
+            + "  }"
+            + "};"
+            + "for (var i = 0; i < locators.length; i++) {"
+            + "  var el = locate(locators[i][0], locators[i][1]);"
+            + "  var proto = el instanceof HTMLTextAreaElement ? HTMLTextAreaElement.prototype"
+            + "    : el instanceof HTMLSelectElement ? HTMLSelectElement.prototype"
+            + "    : el instanceof HTMLInputElement ? HTMLInputElement.prototype : null;"
+            + "  if (!proto || el.disabled || el.readOnly || el.getClientRects().length === 0) {"
+            + "    failed.push(i); continue; }"
+            + "  el.focus();"
+            + "  Object.getOwnPropertyDescriptor(proto, 'value').set.call(el, values[i]);"
+            + "  el.dispatchEvent(new Event('input', {bubbles: true}));"
+            + "  el.dispatchEvent(new Event('change', {bubbles: true}));"
+            + "  el.blur();"
+            + "  if (el.value !== values[i]) { failed.push(i); }"
+            + "}"
+            + "return failed;";
+
+    /**
+     * Returns the index of the first selector with a rendered, visible match, or -1
+     */
+    private static final String FIRST_VISIBLE_SCRIPT =
+            "var selectors = arguments[0];"
+            + "for (var i = 0; i < selectors.length; i++) {"
+            + "  var found = document.querySelectorAll(selectors[i]);"
+            + "  for (var j = 0; j < found.length; j++) {"
+            + "    if (found[j].getClientRects().length > 0"
+            + "        && window.getComputedStyle(found[j]).visibility !== 'hidden') { return i; }"
+            + "  }"
+            + "}"
+            + "return -1;";
+    private static final Duration OUTCOME_POLL = Duration.ofMillis(100);
 
     public BasePage(WebDriver driver) {
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(TIMEOUT));
         PageFactory.initElements(driver, this);
     }
 
+    /**
+     * Wait for a condition within the calling action's adaptive timeout (explicit.wait until
+     * it has history); kind names the wait within the action, e.g. "visible"
+     */
+    protected <T> T until(String kind, Function<? super WebDriver, T> condition) {
+        return until(kind, new WebDriverWait(driver, Duration.ZERO), condition);
+    }
+
+    private <T> T until(String kind, WebDriverWait template, Function<? super WebDriver, T> condition) {
+        return AdaptiveTimeouts.until(kind, timeout -> template.withTimeout(timeout).until(condition));
+    }
+
     /**
      * Wait for element to be visible
      */
     protected void waitForElementToBeVisible(WebElement element) {
-        wait.until(ExpectedConditions.visibilityOf(element));
+        until("visible", ExpectedConditions.visibilityOf(element));
     }
 
     /**
      * Wait for element to be clickable
      */
     protected void waitForElementToBeClickable(WebElement element) {
-        wait.until(ExpectedConditions.elementToBeClickable(element));
+        until("clickable", ExpectedConditions.elementToBeClickable(element));
     }
 
     /**
@@ -44,7 +117,7 @@ public class BasePage {
     protected void clickElement(WebElement element) {
         waitForElementToBeClickable(element);
         element.click();
-        LoggerUtil.info("Clicked on element: " + element.toString());
+        LoggerUtil.info("Clicked on element: {}", element);
     }
 
     /**
@@ -54,7 +127,124 @@ public class BasePage {
         waitForElementToBeVisible(element);
         element.clear();
         element.sendKeys(text);
-        LoggerUtil.info("Entered text: " + text + " into element: " + element.toString());
+        LoggerUtil.info("Entered text: {} into element: {}", text, element);
+    }
+
+    /**
+     * Fill a form in a fixed number of round trips however many fields it has: one visibility
+     * wait on the first field and one script call that locates and sets every field. Fields the
+     * script cannot set, and fields added with type(), are located and typed with enterText.
+     */
+    protected void fillForm(FormFields form) {
+        List<By> scripted = new ArrayList<>();
+        List<List<String>> locators = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < form.locators.size(); i++) {
+            if (!form.typed.get(i)) {
+                By locator = form.locators.get(i);
+                By.Remotable.Parameters parameters = locator instanceof By.Remotable
+                        ? ((By.Remotable) locator).getRemoteParameters() : null;
+                scripted.add(locator);
+                locators.add(parameters == null ? Arrays.asList("", "")
+                        : Arrays.asList(parameters.using(), String.valueOf(parameters.value())));
+                values.add(form.values.get(i));
+            }
+        }
+
+        if (!scripted.isEmpty()) {
+            // One visibility wait for the form, not one per field
+            until("visible", ExpectedConditions.visibilityOfElementLocated(scripted.get(0)));
+            @SuppressWarnings("unchecked")
+            List<Number> failed = (List<Number>) ((JavascriptExecutor) driver)
+                    .executeScript(FILL_FORM_SCRIPT, locators, values);
+            LoggerUtil.info("Filled {} form fields in one script call", scripted.size() - failed.size());
+            for (Number index : failed) {
+                By locator = scripted.get(index.intValue());
+                LoggerUtil.debug("Script could not set field, typing instead: {}", locator);
+                enterText(driver.findElement(locator), values.get(index.intValue()));
+            }
+        }
+
+        for (int i = 0; i < form.locators.size(); i++) {
+            if (form.typed.get(i)) {
+                enterText(driver.findElement(form.locators.get(i)), form.values.get(i));
+            }
+        }
+    }
+
+    /**
+     * FormFields - Ordered field locator to value mapping for fillForm
+     * Fields are given as locators rather than PageFactory elements: a PageFactory proxy costs a
+     * findElement round trip every time it is used, while a locator is resolved inside the script.
+     */
+    public static class FormFields {
+        private final List<By> locators = new ArrayList<>();
+        private final List<String> values = new ArrayList<>();
+        private final List<Boolean> typed = new ArrayList<>();
+
+        /**
+         * Set a field's value from script
+         */
+        public FormFields set(By locator, String value) {
+            return add(locator, value, false);
+        }
+
+        /**
+         * Type a field's value with real keystrokes, for fields that react to key events
+         */
+        public FormFields type(By locator, String value) {
+            return add(locator, value, true);
+        }
+
+        private FormFields add(By locator, String value, boolean keystrokes) {
+            locators.add(locator);
+            values.add(value == null ? "" : value);
+            typed.add(keystrokes);
+            return this;
+        }
+    }
+
+    /**
+     * Wait for the page to meet its readiness spec, in one async script call, within the
+     * calling action's adaptive timeout
+     */
+    protected boolean waitUntilReady(ReadinessSpec spec) {
+        AdaptiveTimeouts.Wait timing = AdaptiveTimeouts.start("ready");
+        while (true) {
+            if (PageReadiness.await(driver, spec, timing.getTimeout()).isReady()) {
+                timing.completed();
+                return true;
+            }
+            if (!timing.expired()) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Wait for the first of several outcomes, each a CSS selector that becomes visible
+     * All selectors are checked in one script call per poll, in the map's iteration order, so
+     * an error panel is reported as soon as it shows instead of after the success wait times out.
+     * Returns timedOut when none shows within the calling action's adaptive timeout.
+     */
+    protected <T> T awaitOutcome(Map<T, String> outcomes, T timedOut) {
+        List<T> keys = new ArrayList<>(outcomes.keySet());
+        List<String> selectors = new ArrayList<>(outcomes.values());
+        long start = System.nanoTime();
+        T outcome;
+        try {
+            WebDriverWait template = new WebDriverWait(driver, Duration.ZERO);
+            template.pollingEvery(OUTCOME_POLL).ignoring(JavascriptException.class);
+            Number index = until("outcome", template, d -> {
+                Number found = (Number) ((JavascriptExecutor) d).executeScript(FIRST_VISIBLE_SCRIPT, selectors);
+                return found != null && found.intValue() >= 0 ? found : null;
+            });
+            outcome = keys.get(index.intValue());
+        } catch (TimeoutException e) {
+            outcome = timedOut;
+        }
+        LoggerUtil.info("Outcome {} after {} ms", outcome, (System.nanoTime() - start) / 1_000_000);
+        return outcome;
     }
 
     /**
@@ -63,20 +253,44 @@ public class BasePage {
     protected String getElementText(WebElement element) {
         waitForElementToBeVisible(element);
         String text = element.getText();
-        LoggerUtil.info("Retrieved text: " + text);
+        LoggerUtil.info("Retrieved text: {}", text);
         return text;
     }
 
     /**
-     * Check if element is displayed
+     * Check if element is displayed, waiting up to the action's visibility timeout for it
+     * The implicit wait is off meanwhile, so each poll of a missing element answers at once
      */
     protected boolean isElementDisplayed(WebElement element) {
-        try {
-            waitForElementToBeVisible(element);
-            return element.isDisplayed();
-        } catch (Exception e) {
-            return false;
-        }
+        return ElementProbe.withoutImplicitWait(driver, () -> {
+            try {
+                waitForElementToBeVisible(element);
+                return element.isDisplayed();
+            } catch (Exception e) {
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Check if an element matching the locator is displayed within probe.budget.ms
+     */
+    protected boolean isElementDisplayed(By locator) {
+        return isElementDisplayed(locator, ElementProbe.defaultBudget());
+    }
+
+    /**
+     * Check if an element matching the locator is displayed within the budget
+     */
+    protected boolean isElementDisplayed(By locator, Duration budget) {
+        return ElementProbe.visible(driver, locator, budget).isSatisfied();
+    }
+
+    /**
+     * Check if no element matches the locator, waiting up to the budget for it to go
+     */
+    protected boolean isElementAbsent(By locator, Duration budget) {
+        return ElementProbe.absent(driver, locator, budget).isSatisfied();
     }
 
     /**
@@ -84,7 +298,7 @@ public class BasePage {
      */
     public String getPageTitle() {
         String title = driver.getTitle();
-        LoggerUtil.info("Current page title: " + title);
+        LoggerUtil.info("Current page title: {}", title);
         return title;
     }
 
@@ -93,7 +307,7 @@ public class BasePage {
      */
     public String getCurrentUrl() {
         String url = driver.getCurrentUrl();
-        LoggerUtil.info("Current URL: " + url);
+        LoggerUtil.info("Current URL: {}", url);
         return url;
     }
 }
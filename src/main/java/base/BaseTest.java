@@ -1,82 +1,176 @@
 package base;
 
+import api.AccountPool;
+import api.AccountRequirement;
+import org.apache.logging.log4j.ThreadContext;
 import org.openqa.selenium.WebDriver;
 import org.testng.ITestResult;
 import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.BeforeSuite;
+import server.LocalParaBankServer;
+import utils.AdaptiveTimeouts;
+import utils.CommandHistory;
+import utils.CommandMetrics;
 import utils.ConfigReader;
 import utils.DriverFactory;
+import utils.FailureBundle;
 import utils.LoggerUtil;
 import utils.ScreenshotUtils;
+import utils.TestLogAppender;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * BaseTest - Parent class for all Test Classes
- * Handles browser setup, teardown, and screenshot capture
+ * Handles browser setup, teardown, and failure evidence capture
+ * Holds no per-test state in fields, so one instance can serve parallel TestNG workers
  */
 public class BaseTest {
-    protected WebDriver driver;
-    protected String baseUrl;
+    public static final String TEST_NAME_KEY = "testName";
+
+    private static final ThreadLocal<List<AccountPool.Lease>> leases = ThreadLocal.withInitial(ArrayList::new);
+    private static final AtomicInteger invocations = new AtomicInteger();
+    private static final String SHARD_PREFIX =
+            System.getProperty("shard.index") != null ? "s" + System.getProperty("shard.index") + "." : "";
+
+    @BeforeSuite(alwaysRun = true)
+    public void setUpSuite() {
+        // Bind the local stand-in first so pooled browsers park on its URL
+        LocalParaBankServer.startIfEnabled();
+        try {
+            DriverFactory.warmUpPool();
+        } catch (Exception e) {
+            LoggerUtil.error("Error warming up driver pool: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Get the WebDriver bound to the current test thread
+     */
+    protected WebDriver getDriver() {
+        return DriverFactory.getDriver();
+    }
+
+    /**
+     * Get the application base URL
+     */
+    protected String getBaseUrl() {
+        return ConfigReader.get().getBaseUrl();
+    }
+
+    /**
+     * Lease a customer of the test's own for money movement; returned automatically after the test
+     */
+    protected AccountPool.Lease leaseCustomer(AccountRequirement requirement) {
+        AccountPool.Lease lease = AccountPool.lease(requirement);
+        leases.get().add(lease);
+        return lease;
+    }
 
     @BeforeMethod(alwaysRun = true)
-    public void setUp() {
+    public void setUp(Method method) {
+        // Tag every log line from this thread with the running test; the id is unique per invocation
+        String testName = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        ThreadContext.put(TEST_NAME_KEY, testName);
+        ThreadContext.put(TestLogAppender.TEST_ID_KEY, testName + "-" + SHARD_PREFIX + invocations.incrementAndGet());
         LoggerUtil.info("========== TEST EXECUTION STARTED ==========");
+        CommandHistory.clear();
         
         try {
-            // Ensure any previous driver is removed
-            DriverFactory.removeDriver();
+            // Ensure any previous driver is released
+            DriverFactory.releaseDriver();
             
             // Initialize WebDriver
-            driver = DriverFactory.getDriver();
-            LoggerUtil.info("Browser launched successfully");
+            WebDriver driver = DriverFactory.getDriver();
+            LoggerUtil.info("Browser session acquired");
 
-            // Load base URL from config
-            baseUrl = ConfigReader.getProperty("base.url");
-            driver.get(baseUrl);
-            LoggerUtil.info("Navigated to application URL: " + baseUrl);
-            
-            // Maximize browser
-            driver.manage().window().maximize();
-            LoggerUtil.info("Browser window maximized");
+            // Load base URL from config; pooled drivers are already parked on it
+            String baseUrl = getBaseUrl();
+            if (!DriverFactory.isPoolEnabled()) {
+                driver.get(baseUrl);
+            }
+            LoggerUtil.info("Navigated to application URL: {}", baseUrl);
         } catch (Exception e) {
-            LoggerUtil.error("Error during test setup: " + e.getMessage());
+            LoggerUtil.error("Error during test setup: {}", e.getMessage());
             throw e;
         }
     }
 
     @AfterMethod(alwaysRun = true)
     public void tearDown(ITestResult result) {
-        // Capture screenshot on failure
-        if (result.getStatus() == ITestResult.FAILURE) {
-            LoggerUtil.error("TEST FAILED: " + result.getName());
-            LoggerUtil.error("Failure Reason: " + result.getThrowable());
-            
-            try {
-                if (driver != null) {
-                    String screenshotPath = ScreenshotUtils.captureScreenshot(driver, result.getName());
-                    LoggerUtil.info("Screenshot captured at: " + screenshotPath);
+        try {
+            // Capture the failure bundle (or just a screenshot) on failure
+            boolean driverBusy = false;
+            if (result.getStatus() == ITestResult.FAILURE) {
+                LoggerUtil.error("Failure Reason: {}", result.getThrowable());
+
+                try {
+                    WebDriver driver = DriverFactory.getCurrentDriver();
+                    if (driver != null && FailureBundle.isEnabled()) {
+                        FailureBundle.Capture bundle = FailureBundle.capture(driver, result.getName(), result.getThrowable());
+                        LoggerUtil.info("Failure bundle captured, writing to: {}", bundle.getArchive());
+                        driverBusy = !bundle.isComplete();
+                    } else if (driver != null) {
+                        String screenshotPath = ScreenshotUtils.captureScreenshot(driver, result.getName());
+                        LoggerUtil.info("Screenshot captured, writing to: {}", screenshotPath);
+                    }
+                } catch (Exception e) {
+                    LoggerUtil.error("Failed to capture failure evidence: {}", e.getMessage());
                 }
-            } catch (Exception e) {
-                LoggerUtil.error("Failed to capture screenshot: " + e.getMessage());
             }
-        } else if (result.getStatus() == ITestResult.SUCCESS) {
-            LoggerUtil.info("TEST PASSED: " + result.getName());
-        } else if (result.getStatus() == ITestResult.SKIP) {
-            LoggerUtil.warn("TEST SKIPPED: " + result.getName());
-        }
 
-        // Close browser
-        try {
-            if (driver != null) {
-                driver.quit();
-                LoggerUtil.info("Browser closed successfully");
+            // Return leased customers; their balances are reset in the background
+            for (AccountPool.Lease lease : leases.get()) {
+                lease.close();
+            }
+            leases.get().clear();
+
+            if (driverBusy) {
+                // A capture part that missed its budget is still driving this browser; never reuse it
+                DriverFactory.quitDriver();
+                LoggerUtil.warn("Browser session quit: failure capture still running on it");
+            } else {
+                // Return browser to the pool (or close it when pooling is off)
+                DriverFactory.releaseDriver();
+                LoggerUtil.info("Browser session released");
+            }
+
+            // After the release, so the pool's scrub commands count toward this test, not the next one
+            if (CommandMetrics.isEnabled()) {
+                CommandMetrics.finishTest(ThreadContext.get(TEST_NAME_KEY));
             }
-        } catch (Exception e) {
-            LoggerUtil.error("Error closing browser: " + e.getMessage());
         } finally {
-            DriverFactory.removeDriver();
-            driver = null;
+            ConfigReader.clearThreadOverrides();
+            LoggerUtil.info("========== TEST EXECUTION COMPLETED ==========\n");
+
+            // Closes the test's buffered log: kept in its own file on failure or skip, dropped on a pass
+            String testId = ThreadContext.get(TestLogAppender.TEST_ID_KEY);
+            long millis = result.getEndMillis() - result.getStartMillis();
+            if (result.getStatus() == ITestResult.SUCCESS) {
+                LoggerUtil.testPassed("TEST PASSED: " + result.getName() + " in " + millis + " ms");
+            } else if (result.getStatus() == ITestResult.SKIP) {
+                LoggerUtil.testSkipped("TEST SKIPPED: " + result.getName() + ", log: " + TestLogAppender.logFileFor(testId));
+            } else {
+                LoggerUtil.testFailed("TEST FAILED: " + result.getName() + " in " + millis + " ms, log: "
+                        + TestLogAppender.logFileFor(testId));
+            }
+            ThreadContext.remove(TEST_NAME_KEY);
+            ThreadContext.remove(TestLogAppender.TEST_ID_KEY);
         }
-        
-        LoggerUtil.info("========== TEST EXECUTION COMPLETED ==========\n");
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void tearDownSuite() {
+        DriverFactory.shutdownPool();
+        CommandMetrics.reportSuite();
+        AdaptiveTimeouts.reportSuite();
+        FailureBundle.flush();
+        ScreenshotUtils.flush();
+        LocalParaBankServer.stopShared();
     }
 }
@@ -0,0 +1,187 @@
+package base;
+
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.WebDriver;
+import utils.LoggerUtil;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PageReadiness - Waits for a ReadinessSpec inside the browser with one async script call
+ *
+ * Instead of polling the page over WebDriver every 500 ms, one executeAsyncScript call checks the
+ * spec in the page and, while it is not met, re-checks whenever the page signals a change: a DOM
+ * mutation (MutationObserver), a readyState change, or an XMLHttpRequest/fetch completing. A
+ * 100 ms in-page timer covers changes no event reports, such as a stylesheet making an element
+ * visible. The script answers the moment the spec holds, or with the unmet conditions when the
+ * timeout is reached.
+ *
+ * The request tracker is installed into the document on the first wait and lives until the
+ * next navigation; requests started before it was installed are only seen through jQuery.active.
+ * If the document is replaced while the script waits, the wait starts again on the new document
+ * within the same overall timeout.
+ */
+public class PageReadiness {
+    private static final String READINESS_SCRIPT =
+            "var spec = arguments[0], timeout = arguments[1], done = arguments[arguments.length - 1];"
+            + "var start = Date.now(), w = window;"
+            + "if (!w.__pageReadiness) {"
+            + "  var t = w.__pageReadiness = {pending: 0, lastMutation: Date.now(), listeners: []};"
+            + "  t.notify = function () { for (var i = 0; i < t.listeners.length; i++) { t.listeners[i](); } };"
+            + "  var send = XMLHttpRequest.prototype.send;"
+            + "  XMLHttpRequest.prototype.send = function () {"
+            + "    var settled = false, settle = function () { if (!settled) { settled = true; t.pending--; t.notify(); } };"
+            + "    t.pending++;"
+            + "    this.addEventListener('loadend', settle);"
+            + "    try { return send.apply(this, arguments); } catch (e) { settle(); throw e; }"
+            + "  };"
+            + "  if (w.fetch) {"
+            + "    var fetch = w.fetch;"
+            + "    w.fetch = function () {"
+            + "      var settle = function () { t.pending--; t.notify(); };"
+            + "      t.pending++;"
+            + "      try { var p = fetch.apply(this, arguments); } catch (e) { settle(); throw e; }"
+            + "      p.then(settle, settle);"
+            + "      return p;"
+            + "    };"
+            + "  }"
+            + "  new MutationObserver(function () { t.lastMutation = Date.now(); t.notify(); })"
+            + "    .observe(document, {childList: true, subtree: true, attributes: true, characterData: true});"
+            + "  document.addEventListener('readystatechange', t.notify);"
+            + "}"
+            + "var tracker = w.__pageReadiness;"
+            + "var shown = function (el) {"
+            + "  return el.getClientRects().length > 0 && w.getComputedStyle(el).visibility !== 'hidden';"
+            + "};"
+            + "var unmet = function () {"
+            + "  var missing = [], state = document.readyState;"
+            + "  if (state === 'loading' || (spec.readyState === 'complete' && state !== 'complete')) {"
+            + "    missing.push('readyState ' + state); }"
+            + "  if (spec.networkIdle) {"
+            + "    var pending = tracker.pending + (w.jQuery && w.jQuery.active ? w.jQuery.active : 0);"
+            + "    if (pending > 0) { missing.push(pending + ' request(s) in flight'); }"
+            + "  }"
+            + "  for (var i = 0; i < spec.elements.length; i++) {"
+            + "    var c = spec.elements[i], found = document.querySelectorAll(c.css), ok = false;"
+            + "    for (var j = 0; j < found.length && !ok; j++) {"
+            + "      ok = (!c.visible || shown(found[j]))"
+            + "        && (c.text == null || found[j].textContent.indexOf(c.text) >= 0);"
+            + "    }"
+            + "    if (!ok) { missing.push(c.description); }"
+            + "  }"
+            + "  if (spec.quietMillis > 0 && Date.now() - tracker.lastMutation < spec.quietMillis) {"
+            + "    missing.push('DOM quiet for ' + spec.quietMillis + ' ms'); }"
+            + "  return missing;"
+            + "};"
+            + "var finished = false, scheduled = false, timer, deadline;"
+            + "var finish = function (missing) {"
+            + "  if (finished) { return; }"
+            + "  finished = true;"
+            + "  clearInterval(timer); clearTimeout(deadline);"
+            + "  var i = tracker.listeners.indexOf(onChange);"
+            + "  if (i >= 0) { tracker.listeners.splice(i, 1); }"
+            + "  done({ready: missing.length === 0, unmet: missing, elapsed: Date.now() - start});"
+            + "};"
+            + "var check = function () {"
+            + "  scheduled = false;"
+            + "  var missing = unmet();"
+            + "  if (missing.length === 0) { finish(missing); }"
+            + "};"
+            + "var onChange = function () { if (!scheduled) { scheduled = true; setTimeout(check, 0); } };"
+            + "var missing = unmet();"
+            + "if (missing.length === 0) { finish(missing); return; }"
+            + "tracker.listeners.push(onChange);"
+            + "timer = setInterval(check, 100);"
+            + "deadline = setTimeout(function () { finish(unmet()); }, timeout);";
+
+    /**
+     * Block until the spec holds in the current page, or the timeout passes
+     */
+    public static Result await(WebDriver driver, ReadinessSpec spec, Duration timeout) {
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        Map<String, Object> argument = spec.toScriptArgument();
+        Result result = null;
+        while (result == null) {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            try {
+                Object answer = ((JavascriptExecutor) driver)
+                        .executeAsyncScript(READINESS_SCRIPT, argument, Math.max(0, remaining));
+                result = Result.from(spec, answer, System.nanoTime() - start);
+            } catch (JavascriptException e) {
+                // The document was replaced while waiting; start over on the new one
+                if (e.getMessage() == null || !e.getMessage().toLowerCase().contains("unload")) {
+                    throw e;
+                }
+                if (remaining <= 0) {
+                    result = new Result(spec, false, Collections.singletonList("page kept reloading"),
+                            System.nanoTime() - start);
+                } else {
+                    LoggerUtil.debug("Readiness wait for {} restarted: {}", spec, e.getMessage());
+                }
+            } catch (ScriptTimeoutException e) {
+                result = new Result(spec, false, Collections.singletonList("script timeout"),
+                        System.nanoTime() - start);
+            }
+        }
+        LoggerUtil.info(result::toString);
+        return result;
+    }
+
+    /**
+     * Whether the spec held, what was still missing if not, and how long the wait took
+     */
+    public static class Result {
+        private final ReadinessSpec spec;
+        private final boolean ready;
+        private final List<String> unmet;
+        private final long elapsedNanos;
+
+        private Result(ReadinessSpec spec, boolean ready, List<String> unmet, long elapsedNanos) {
+            this.spec = spec;
+            this.ready = ready;
+            this.unmet = unmet;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Result from(ReadinessSpec spec, Object answer, long elapsedNanos) {
+            Map<String, Object> map = (Map<String, Object>) answer;
+            List<String> unmet = new ArrayList<>();
+            for (Object condition : (List<Object>) map.get("unmet")) {
+                unmet.add(String.valueOf(condition));
+            }
+            return new Result(spec, Boolean.TRUE.equals(map.get("ready")), unmet, elapsedNanos);
+        }
+
+        public boolean isReady() {
+            return ready;
+        }
+
+        /**
+         * Get the conditions that did not hold when the wait ended; empty when ready
+         */
+        public List<String> getUnmet() {
+            return unmet;
+        }
+
+        public Duration getElapsed() {
+            return Duration.ofNanos(elapsedNanos);
+        }
+
+        @Override
+        public String toString() {
+            long millis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+            return ready
+                    ? String.format("%s page ready in %d ms", spec, millis)
+                    : String.format("%s page not ready after %d ms, waiting on %s", spec, millis, unmet);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package base;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ReadinessSpec - Declares when a page object's page counts as ready
+ *
+ * private static final ReadinessSpec READY = ReadinessSpec.page("Transfer Funds")
+ *         .textContains("h1.title", "Transfer Funds")
+ *         .present("select#fromAccountId option")
+ *         .networkIdle();
+ *
+ * By default a page is ready once document.readyState is complete; every further condition must
+ * hold at the same moment. Specs are built once, as constants, and evaluated inside the browser
+ * by PageReadiness.
+ */
+public final class ReadinessSpec {
+    private final String name;
+    private final List<Map<String, Object>> elements = new ArrayList<>();
+    private String readyState = "complete";
+    private boolean networkIdle;
+    private long quietMillis;
+
+    private ReadinessSpec(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Start a spec for the named page
+     */
+    public static ReadinessSpec page(String name) {
+        return new ReadinessSpec(name);
+    }
+
+    /**
+     * Accept document.readyState "interactive" (DOM parsed, subresources may still load)
+     */
+    public ReadinessSpec domContentLoaded() {
+        readyState = "interactive";
+        return this;
+    }
+
+    /**
+     * Require an element matching the selector to be in the DOM
+     */
+    public ReadinessSpec present(String css) {
+        return element(css, null, false, "present: " + css);
+    }
+
+    /**
+     * Require an element matching the selector to be rendered and not visibility:hidden
+     */
+    public ReadinessSpec visible(String css) {
+        return element(css, null, true, "visible: " + css);
+    }
+
+    /**
+     * Require a visible element matching the selector whose text contains the given text
+     */
+    public ReadinessSpec textContains(String css, String text) {
+        return element(css, text, true, "text \"" + text + "\" in " + css);
+    }
+
+    /**
+     * Require no XMLHttpRequest, fetch or jQuery request to be in flight
+     */
+    public ReadinessSpec networkIdle() {
+        networkIdle = true;
+        return this;
+    }
+
+    /**
+     * Require the DOM to have gone this long without a mutation
+     */
+    public ReadinessSpec quietFor(Duration quiet) {
+        quietMillis = quiet.toMillis();
+        return this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the spec as the plain map handed to the readiness script
+     */
+    Map<String, Object> toScriptArgument() {
+        Map<String, Object> spec = new HashMap<>();
+        spec.put("readyState", readyState);
+        spec.put("networkIdle", networkIdle);
+        spec.put("quietMillis", quietMillis);
+        spec.put("elements", Collections.unmodifiableList(elements));
+        return spec;
+    }
+
+    private ReadinessSpec element(String css, String text, boolean visible, String description) {
+        Map<String, Object> condition = new HashMap<>();
+        condition.put("css", css);
+        if (text != null) {
+            condition.put("text", text);
+        }
+        condition.put("visible", visible);
+        condition.put("description", description);
+        elements.add(condition);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,71 @@
+package listeners;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.WebDriverListener;
+import utils.CallerResolver;
+import utils.CommandHistory;
+import utils.CommandMetrics;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * CommandTimingListener - Times every WebDriver command made through a decorated driver
+ * Each call (findElement, click, sendKeys, getText, executeScript, navigation, ...) is recorded
+ * in CommandMetrics against the page-object or test method that issued it, and in the thread's
+ * CommandHistory for failure bundles. Failed calls are timed too, since waits that poll a
+ * missing element are often where the time goes.
+ */
+public class CommandTimingListener implements WebDriverListener {
+    // Accessors that only hand back local helper objects and never reach the browser
+    private static final Set<String> LOCAL_CALLS = new HashSet<>(Arrays.asList(
+            "manage", "navigate", "switchTo", "timeouts", "window", "logs", "getWrappedDriver",
+            "getWrappedElement", "toString", "hashCode", "equals"));
+
+    private final ThreadLocal<Deque<Long>> starts = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (!LOCAL_CALLS.contains(method.getName())) {
+            starts.get().push(System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        finish(method, args, null);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        finish(method, args, e.getCause());
+    }
+
+    private static String commandName(Method method) {
+        // Navigation's to/back/refresh read poorly on their own
+        return method.getDeclaringClass() == WebDriver.Navigation.class
+                ? "navigate." + method.getName() : method.getName();
+    }
+
+    private void finish(Method method, Object[] args, Throwable error) {
+        if (LOCAL_CALLS.contains(method.getName())) {
+            return;
+        }
+        Long start = starts.get().poll();
+        if (start != null) {
+            long nanos = System.nanoTime() - start;
+            String action = CallerResolver.currentAction();
+            if (CommandMetrics.isEnabled()) {
+                CommandMetrics.record(action, commandName(method), nanos);
+            }
+            if (CommandHistory.isEnabled()) {
+                CommandHistory.record(action, commandName(method), args, nanos, error);
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package listeners;
+
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import utils.LoggerUtil;
+
+import java.util.List;
+
+/**
+ * ParallelExecutionListener - Applies the parallel mode and thread count chosen at launch
+ * Reads the parallel.mode and thread.count system properties (set from the Maven build)
+ * so the same testng.xml can run sequentially or in parallel
+ *
+ * Supported modes: none, methods, classes, instances, tests, all
+ * "all" runs every <test> block concurrently and the methods inside each block in parallel
+ */
+public class ParallelExecutionListener implements IAlterSuiteListener {
+    public static final String PARALLEL_MODE_PROPERTY = "parallel.mode";
+    public static final String THREAD_COUNT_PROPERTY = "thread.count";
+
+    private static volatile int suiteWorkers;
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        if (!isParallel()) {
+            return;
+        }
+        String mode = getParallelMode();
+        int threadCount = getThreadCount();
+        int workers = 0;
+
+        for (XmlSuite suite : suites) {
+            if (mode.equals("all")) {
+                suite.setParallel(XmlSuite.ParallelMode.TESTS);
+                suite.setThreadCount(Math.max(1, suite.getTests().size()));
+                for (XmlTest test : suite.getTests()) {
+                    test.setParallel(XmlSuite.ParallelMode.METHODS);
+                    test.setThreadCount(threadCount);
+                    test.setPreserveOrder(false);
+                }
+                workers = Math.max(workers, Math.max(1, suite.getTests().size()) * threadCount);
+            } else {
+                XmlSuite.ParallelMode parallelMode = XmlSuite.ParallelMode.getValidParallel(mode);
+                if (parallelMode == null || parallelMode == XmlSuite.ParallelMode.NONE) {
+                    throw new IllegalArgumentException("Unsupported parallel mode: " + mode);
+                }
+                suite.setParallel(parallelMode);
+                suite.setThreadCount(threadCount);
+                for (XmlTest test : suite.getTests()) {
+                    test.setParallel(parallelMode);
+                    test.setThreadCount(threadCount);
+                    test.setPreserveOrder(false);
+                }
+                workers = Math.max(workers, threadCount);
+            }
+            LoggerUtil.info("Suite '{}' running in parallel mode: {} with {} thread(s)",
+                    suite.getName(), mode, threadCount);
+        }
+        suiteWorkers = workers;
+    }
+
+    /**
+     * Get the requested parallel mode in lower case
+     */
+    public static String getParallelMode() {
+        return System.getProperty(PARALLEL_MODE_PROPERTY, "none").trim().toLowerCase();
+    }
+
+    /**
+     * Check if a parallel mode was requested
+     */
+    public static boolean isParallel() {
+        String mode = getParallelMode();
+        return !(mode.isEmpty() || mode.equals("none") || mode.equals("false"));
+    }
+
+    /**
+     * Get the number of concurrent test workers: one when sequential, the thread count per
+     * <test> block times the number of blocks in "all" mode, otherwise the thread count
+     */
+    public static int getWorkerCount() {
+        if (!isParallel()) {
+            return 1;
+        }
+        int workers = suiteWorkers;
+        return workers > 0 ? workers : getThreadCount();
+    }
+
+    /**
+     * Get the configured worker thread count, defaulting to the number of CPU cores
+     */
+    public static int getThreadCount() {
+        String value = System.getProperty(THREAD_COUNT_PROPERTY, "").trim();
+        if (value.isEmpty()) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        return Math.max(1, Integer.parseInt(value));
+    }
+}
@@ -0,0 +1,54 @@
+package listeners;
+
+import org.testng.IExecutionListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import utils.LoggerUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TestDurationListener - Records how long each test method takes
+ * Durations are folded into a history file (test.durations.file) at the end of the run
+ * and drive duration-aware sharding in runner.ShardPlanner
+ */
+public class TestDurationListener implements ITestListener, IExecutionListener {
+    public static final String DURATIONS_FILE_PROPERTY = "test.durations.file";
+    public static final String DEFAULT_DURATIONS_FILE = "test-history/durations.properties";
+
+    private final Map<String, Long> durations = new ConcurrentHashMap<>();
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onExecutionFinish() {
+        if (durations.isEmpty()) {
+            return;
+        }
+        File file = new File(System.getProperty(DURATIONS_FILE_PROPERTY, DEFAULT_DURATIONS_FILE));
+        try {
+            TestDurations history = TestDurations.load(file);
+            history.mergeAll(durations);
+            history.save(file);
+            LoggerUtil.info("Recorded {} test duration(s) in {}", durations.size(), file.getPath());
+        } catch (IOException e) {
+            LoggerUtil.error("Failed to record test durations: {}", e.getMessage());
+        }
+    }
+
+    private void record(ITestResult result) {
+        String key = TestDurations.key(result.getTestClass().getName(), result.getMethod().getMethodName());
+        durations.merge(key, result.getEndMillis() - result.getStartMillis(), Long::sum);
+    }
+}
@@ -0,0 +1,124 @@
+package listeners;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Properties;
+
+/**
+ * TestDurations - Historical per-test durations in milliseconds, keyed by class.method
+ * New samples are blended into history with an exponential moving average
+ * so one slow run does not reshuffle every shard
+ */
+public class TestDurations {
+    private static final double SMOOTHING = 0.5;
+
+    private final Properties durations;
+
+    private TestDurations(Properties durations) {
+        this.durations = durations;
+    }
+
+    /**
+     * Load durations from file; a missing file yields empty history
+     */
+    public static TestDurations load(File file) throws IOException {
+        Properties properties = new Properties();
+        if (file.isFile()) {
+            try (InputStream in = new FileInputStream(file)) {
+                properties.load(in);
+            }
+        }
+        return new TestDurations(properties);
+    }
+
+    /**
+     * Build the history key for a test method
+     */
+    public static String key(String className, String methodName) {
+        return className + "." + methodName;
+    }
+
+    /**
+     * Get the recorded duration of one test method
+     */
+    public OptionalLong get(String key) {
+        String value = durations.getProperty(key);
+        return value == null ? OptionalLong.empty() : OptionalLong.of(Long.parseLong(value));
+    }
+
+    /**
+     * Sum the recorded durations of every method in a class, if any are known
+     */
+    public OptionalLong getClassTotal(String className) {
+        String prefix = className + ".";
+        long total = 0;
+        boolean found = false;
+        for (String key : durations.stringPropertyNames()) {
+            if (key.startsWith(prefix) && key.indexOf('.', prefix.length()) < 0) {
+                total += Long.parseLong(durations.getProperty(key));
+                found = true;
+            }
+        }
+        return found ? OptionalLong.of(total) : OptionalLong.empty();
+    }
+
+    /**
+     * Get the mean recorded duration, used for tests with no history
+     */
+    public OptionalLong getMean() {
+        if (durations.isEmpty()) {
+            return OptionalLong.empty();
+        }
+        long total = 0;
+        for (String key : durations.stringPropertyNames()) {
+            total += Long.parseLong(durations.getProperty(key));
+        }
+        return OptionalLong.of(total / durations.size());
+    }
+
+    /**
+     * Blend a new sample into the history for one test
+     */
+    public void merge(String key, long millis) {
+        OptionalLong previous = get(key);
+        long blended = previous.isPresent()
+                ? Math.round(SMOOTHING * millis + (1 - SMOOTHING) * previous.getAsLong())
+                : millis;
+        durations.setProperty(key, String.valueOf(blended));
+    }
+
+    /**
+     * Blend a batch of samples into the history
+     */
+    public void mergeAll(Map<String, Long> samples) {
+        samples.forEach(this::merge);
+    }
+
+    /**
+     * Blend another history file into this one
+     */
+    public void mergeAll(TestDurations other) {
+        for (String key : other.durations.stringPropertyNames()) {
+            merge(key, Long.parseLong(other.durations.getProperty(key)));
+        }
+    }
+
+    /**
+     * Write durations to file, creating parent directories as needed
+     */
+    public synchronized void save(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        try (OutputStream out = new FileOutputStream(file)) {
+            durations.store(out, "Test durations in milliseconds (class.method=millis)");
+        }
+    }
+}
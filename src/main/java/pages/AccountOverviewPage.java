@@ -1,20 +1,54 @@
 package pages;
 
 import base.BasePage;
+import base.ReadinessSpec;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import utils.LoggerUtil;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
 /**
  * AccountOverviewPage - Page Object for Account Overview Page
  */
 public class AccountOverviewPage extends BasePage {
 
-    // Page Elements
-    @FindBy(css = "h1.title")
-    private WebElement pageTitle;
+    /**
+     * Reads the whole account table in one pass. Rows are filled in by AJAX after the page
+     * loads, so the script returns null until at least one account row and the Total row are
+     * present; used as a wait condition, each poll is a single round trip and the last poll
+     * already carries the data.
+     */
+    private static final String READ_ACCOUNT_TABLE_SCRIPT =
+            "var table = document.querySelector('table#accountTable');"
+            + "if (!table) { return null; }"
+            + "var rows = [], total = null;"
+            + "var trs = table.tBodies.length ? table.tBodies[0].rows : table.rows;"
+            + "for (var i = 0; i < trs.length; i++) {"
+            + "  var cells = trs[i].cells;"
+            + "  if (cells.length < 2) { continue; }"
+            + "  var first = cells[0].textContent.trim();"
+            + "  if (first === 'Total') { total = cells[1].textContent.trim(); continue; }"
+            + "  if (!cells[0].querySelector('a')) { continue; }"
+            + "  rows.push([first, cells[1].textContent.trim(),"
+            + "    cells.length > 2 ? cells[2].textContent.trim() : '']);"
+            + "}"
+            + "return rows.length > 0 && total !== null ? {rows: rows, total: total} : null;";
+
+    // Title shown and account rows rendered: the rows come from an AJAX call that may start
+    // before the readiness tracker is installed, so network idle alone cannot vouch for them
+    private static final ReadinessSpec READY = ReadinessSpec.page("Accounts Overview")
+            .textContains("h1.title", "Accounts Overview")
+            .present("table#accountTable tbody tr td a")
+            .networkIdle();
 
+    // Page Elements
     @FindBy(linkText = "Log Out")
     private WebElement logoutLink;
 
@@ -44,12 +78,11 @@ public class AccountOverviewPage extends BasePage {
      */
     public boolean isAccountOverviewPageLoaded() {
         try {
-            waitForElementToBeVisible(pageTitle);
-            boolean isLoaded = pageTitle.getText().contains("Accounts Overview");
-            LoggerUtil.info("Account Overview page loaded: " + isLoaded);
+            boolean isLoaded = waitUntilReady(READY);
+            LoggerUtil.info("Account Overview page loaded: {}", isLoaded);
             return isLoaded;
         } catch (Exception e) {
-            LoggerUtil.error("Account Overview page not loaded: " + e.getMessage());
+            LoggerUtil.error("Account Overview page not loaded: {}", e.getMessage());
             return false;
         }
     }
@@ -94,4 +127,123 @@ public class AccountOverviewPage extends BasePage {
     public boolean isAccountTableDisplayed() {
         return isElementDisplayed(accountTable);
     }
+
+    /**
+     * Read every account row and the total in one script call, waiting for the AJAX-filled rows
+     */
+    @SuppressWarnings("unchecked")
+    public AccountSummary getAccountSummary() {
+        Map<String, Object> table = (Map<String, Object>) until("account table",
+                d -> ((JavascriptExecutor) d).executeScript(READ_ACCOUNT_TABLE_SCRIPT));
+
+        List<AccountRow> rows = new ArrayList<>();
+        for (List<String> cells : (List<List<String>>) table.get("rows")) {
+            rows.add(new AccountRow(cells.get(0), parseAmount(cells.get(1)), parseAmount(cells.get(2))));
+        }
+        AccountSummary summary = new AccountSummary(rows, parseAmount((String) table.get("total")));
+        LoggerUtil.info("Read account table: {}", summary);
+        return summary;
+    }
+
+    /**
+     * Get the balance of one account from a fresh read of the table
+     */
+    public BigDecimal getBalance(String accountId) {
+        return getAccountSummary().getAccount(accountId).getBalance();
+    }
+
+    /**
+     * Parse amounts as ParaBank prints them, e.g. $1,234.50 or -$20.00; blank cells read as null
+     */
+    private static BigDecimal parseAmount(String text) {
+        String cleaned = text.replace("$", "").replace(",", "").replace("\u00a0", "").trim();
+        if (cleaned.isEmpty()) {
+            return null;
+        }
+        if (cleaned.startsWith("(") && cleaned.endsWith(")")) {
+            cleaned = "-" + cleaned.substring(1, cleaned.length() - 1);
+        }
+        return new BigDecimal(cleaned);
+    }
+
+    /**
+     * AccountRow - One row of the accounts table
+     */
+    public static class AccountRow {
+        private final String accountId;
+        private final BigDecimal balance;
+        private final BigDecimal available;
+
+        AccountRow(String accountId, BigDecimal balance, BigDecimal available) {
+            this.accountId = accountId;
+            this.balance = balance;
+            this.available = available;
+        }
+
+        public String getAccountId() {
+            return accountId;
+        }
+
+        public BigDecimal getBalance() {
+            return balance;
+        }
+
+        public BigDecimal getAvailable() {
+            return available;
+        }
+
+        @Override
+        public String toString() {
+            return accountId + "=" + balance + " (available " + available + ")";
+        }
+    }
+
+    /**
+     * AccountSummary - All account rows plus the table's Total line
+     */
+    public static class AccountSummary {
+        private final List<AccountRow> accounts;
+        private final BigDecimal total;
+
+        AccountSummary(List<AccountRow> accounts, BigDecimal total) {
+            this.accounts = Collections.unmodifiableList(accounts);
+            this.total = total;
+        }
+
+        public List<AccountRow> getAccounts() {
+            return accounts;
+        }
+
+        public BigDecimal getTotal() {
+            return total;
+        }
+
+        /**
+         * Get a row by account id
+         */
+        public AccountRow getAccount(String accountId) {
+            for (AccountRow row : accounts) {
+                if (row.getAccountId().equals(accountId)) {
+                    return row;
+                }
+            }
+            throw new RuntimeException("Account not found in overview table: " + accountId);
+        }
+
+        /**
+         * Sum of the row balances, to reconcile against the Total line
+         */
+        public BigDecimal getBalanceSum() {
+            BigDecimal sum = BigDecimal.ZERO;
+            for (AccountRow row : accounts) {
+                sum = sum.add(row.getBalance());
+            }
+            return sum;
+        }
+
+        @Override
+        public String toString() {
+            return accounts + ", total=" + total;
+        }
+    }
 }
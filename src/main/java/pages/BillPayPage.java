@@ -1,44 +1,54 @@
 package pages;
 
 import base.BasePage;
+import base.ReadinessSpec;
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.ui.Select;
 import utils.LoggerUtil;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * BillPayPage - Page Object for Bill Payment Page
  */
 public class BillPayPage extends BasePage {
 
-    // Page Elements
-    @FindBy(name = "payee.name")
-    private WebElement payeeNameField;
-
-    @FindBy(name = "payee.address.street")
-    private WebElement payeeAddressField;
-
-    @FindBy(name = "payee.address.city")
-    private WebElement payeeCityField;
-
-    @FindBy(name = "payee.address.state")
-    private WebElement payeeStateField;
-
-    @FindBy(name = "payee.address.zipCode")
-    private WebElement payeeZipCodeField;
+    /**
+     * What the application answered to Send Payment
+     */
+    public enum PaymentOutcome { COMPLETED, ERROR, FIELD_ERRORS, NO_RESPONSE }
 
-    @FindBy(name = "payee.phoneNumber")
-    private WebElement payeePhoneField;
+    // Title shown and the from-account dropdown filled by its AJAX call
+    private static final ReadinessSpec READY = ReadinessSpec.page("Bill Payment")
+            .textContains("div#rightPanel h1.title", "Bill Payment")
+            .present("select[name='fromAccountId'] option")
+            .networkIdle();
 
-    @FindBy(name = "payee.accountNumber")
-    private WebElement accountNumberField;
+    // Checked in this order on every poll
+    private static final Map<PaymentOutcome, String> PAYMENT_OUTCOMES = new LinkedHashMap<>();
 
-    @FindBy(name = "verifyAccount")
-    private WebElement verifyAccountField;
+    static {
+        PAYMENT_OUTCOMES.put(PaymentOutcome.COMPLETED, "div#billpayResult h1");
+        PAYMENT_OUTCOMES.put(PaymentOutcome.ERROR, "div#billpayError, p.error");
+        PAYMENT_OUTCOMES.put(PaymentOutcome.FIELD_ERRORS, "[name$='.errors'], [id$='.errors'], span.error");
+    }
 
-    @FindBy(name = "amount")
-    private WebElement amountField;
+    // Page Elements
+    // Form fields, located inside the fillForm script
+    private static final By PAYEE_NAME_FIELD = By.name("payee.name");
+    private static final By PAYEE_ADDRESS_FIELD = By.name("payee.address.street");
+    private static final By PAYEE_CITY_FIELD = By.name("payee.address.city");
+    private static final By PAYEE_STATE_FIELD = By.name("payee.address.state");
+    private static final By PAYEE_ZIP_CODE_FIELD = By.name("payee.address.zipCode");
+    private static final By PAYEE_PHONE_FIELD = By.name("payee.phoneNumber");
+    private static final By ACCOUNT_NUMBER_FIELD = By.name("payee.accountNumber");
+    private static final By VERIFY_ACCOUNT_FIELD = By.name("verifyAccount");
+    private static final By AMOUNT_FIELD = By.name("amount");
 
     @FindBy(name = "fromAccountId")
     private WebElement fromAccountDropdown;
@@ -46,9 +56,6 @@ public class BillPayPage extends BasePage {
     @FindBy(css = "input[value='Send Payment'], input[value='SEND PAYMENT']")
     private WebElement sendPaymentButton;
 
-    @FindBy(css = "div#rightPanel h1.title")
-    private WebElement pageTitle;
-
     @FindBy(css = "div#billpayResult h1")
     private WebElement resultTitle;
 
@@ -61,8 +68,8 @@ public class BillPayPage extends BasePage {
     @FindBy(name = "payee.name.errors")
     private WebElement payeeNameError;
 
-    @FindBy(name = "amount.errors")
-    private WebElement amountError;
+    // Probed by locator so a missing element answers within probe.budget.ms
+    private static final By AMOUNT_ERROR = By.name("amount.errors");
 
     // Constructor
     public BillPayPage(WebDriver driver) {
@@ -75,9 +82,8 @@ public class BillPayPage extends BasePage {
      */
     public boolean isBillPayPageLoaded() {
         try {
-            waitForElementToBeVisible(pageTitle);
-            boolean isLoaded = pageTitle.getText().contains("Bill Payment");
-            LoggerUtil.info("Bill Pay page loaded: " + isLoaded);
+            boolean isLoaded = waitUntilReady(READY);
+            LoggerUtil.info("Bill Pay page loaded: {}", isLoaded);
             return isLoaded;
         } catch (Exception e) {
             return false;
@@ -90,17 +96,18 @@ public class BillPayPage extends BasePage {
     public void payBill(String payeeName, String address, String city, String state,
                         String zipCode, String phone, String account, String amount,
                         String fromAccountIndex) {
-        LoggerUtil.info("Paying bill to: " + payeeName + " - Amount: " + amount);
+        LoggerUtil.info("Paying bill to: {} - Amount: {}", payeeName, amount);
         
-        enterText(payeeNameField, payeeName);
-        enterText(payeeAddressField, address);
-        enterText(payeeCityField, city);
-        enterText(payeeStateField, state);
-        enterText(payeeZipCodeField, zipCode);
-        enterText(payeePhoneField, phone);
-        enterText(accountNumberField, account);
-        enterText(verifyAccountField, account);
-        enterText(amountField, amount);
+        fillForm(new FormFields()
+                .set(PAYEE_NAME_FIELD, payeeName)
+                .set(PAYEE_ADDRESS_FIELD, address)
+                .set(PAYEE_CITY_FIELD, city)
+                .set(PAYEE_STATE_FIELD, state)
+                .set(PAYEE_ZIP_CODE_FIELD, zipCode)
+                .set(PAYEE_PHONE_FIELD, phone)
+                .set(ACCOUNT_NUMBER_FIELD, account)
+                .set(VERIFY_ACCOUNT_FIELD, account)
+                .set(AMOUNT_FIELD, amount));
         
         Select fromAccount = new Select(fromAccountDropdown);
         fromAccount.selectByIndex(Integer.parseInt(fromAccountIndex));
@@ -108,18 +115,29 @@ public class BillPayPage extends BasePage {
         clickElement(sendPaymentButton);
     }
 
+    /**
+     * Wait for the result of Send Payment: the confirmation, an error, or field validation errors
+     */
+    public PaymentOutcome awaitPaymentOutcome() {
+        return awaitOutcome(PAYMENT_OUTCOMES, PaymentOutcome.NO_RESPONSE);
+    }
+
     /**
      * Check if payment was successful
      */
     public boolean isPaymentSuccessful() {
         try {
-            waitForElementToBeVisible(resultTitle);
+            PaymentOutcome outcome = awaitPaymentOutcome();
+            if (outcome != PaymentOutcome.COMPLETED) {
+                LoggerUtil.error("Payment not successful: {}", outcome);
+                return false;
+            }
             String title = resultTitle.getText();
             boolean isSuccessful = title.contains("Bill Payment Complete");
-            LoggerUtil.info("Payment successful: " + isSuccessful);
+            LoggerUtil.info("Payment successful: {}", isSuccessful);
             return isSuccessful;
         } catch (Exception e) {
-            LoggerUtil.error("Payment not successful: " + e.getMessage());
+            LoggerUtil.error("Payment not successful: {}", e.getMessage());
             return false;
         }
     }
@@ -139,10 +157,9 @@ public class BillPayPage extends BasePage {
      * Check if amount error is displayed
      */
     public boolean isAmountErrorDisplayed() {
-        try {
-            return isElementDisplayed(amountError);
-        } catch (Exception e) {
+        if (awaitPaymentOutcome() != PaymentOutcome.FIELD_ERRORS) {
             return false;
         }
+        return isElementDisplayed(AMOUNT_ERROR, Duration.ZERO);
     }
 }
@@ -1,10 +1,18 @@
 package pages;
 
 import base.BasePage;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
+import utils.ConfigReader;
 import utils.LoggerUtil;
+import utils.SessionCache;
+
+import java.net.URI;
+import java.util.Set;
 
 /**
  * HomePage - Page Object for ParaBank Home Page
@@ -45,6 +53,9 @@ public class HomePage extends BasePage {
     @FindBy(css = "p.error")
     private WebElement errorMessage;
 
+    // Probed by locator so a missing element answers within probe.budget.ms
+    private static final By ERROR_MESSAGE = By.cssSelector("p.error");
+
     // Constructor
     public HomePage(WebDriver driver) {
         super(driver);
@@ -57,10 +68,10 @@ public class HomePage extends BasePage {
     public boolean isHomePageLoaded() {
         try {
             boolean isLoaded = isElementDisplayed(usernameField) && isElementDisplayed(loginButton);
-            LoggerUtil.info("Home page loaded status: " + isLoaded);
+            LoggerUtil.info("Home page loaded status: {}", isLoaded);
             return isLoaded;
         } catch (Exception e) {
-            LoggerUtil.error("Error checking home page load status: " + e.getMessage());
+            LoggerUtil.error("Error checking home page load status: {}", e.getMessage());
             return false;
         }
     }
@@ -69,13 +80,56 @@ public class HomePage extends BasePage {
      * Login to application
      */
     public AccountOverviewPage login(String username, String password) {
-        LoggerUtil.info("Attempting login with username: " + username);
+        LoggerUtil.info("Attempting login with username: {}", username);
         enterText(usernameField, username);
         enterText(passwordField, password);
         clickElement(loginButton);
         return new AccountOverviewPage(driver);
     }
 
+    /**
+     * Login reusing this worker's cached session for the user when one exists
+     * Lands directly on Account Overview; falls back to the UI login if the snapshot has expired.
+     * Use login() instead when the login flow itself is under test.
+     */
+    public AccountOverviewPage loginWithCachedSession(String username, String password) {
+        if (!SessionCache.isEnabled()) {
+            return login(username, password);
+        }
+
+        Set<Cookie> cookies = SessionCache.get(username);
+        if (!cookies.isEmpty()) {
+            for (Cookie cookie : cookies) {
+                driver.manage().addCookie(cookie);
+            }
+            String baseUrl = ConfigReader.getProperty("base.url");
+            driver.get(URI.create(baseUrl).resolve("overview.htm").toString());
+            if (isLoggedIn()) {
+                LoggerUtil.info("Reused cached session for user: {}", username);
+                return new AccountOverviewPage(driver);
+            }
+            LoggerUtil.info("Cached session for {} has expired, logging in through the UI", username);
+            SessionCache.invalidate(username);
+            driver.manage().deleteAllCookies();
+            driver.get(baseUrl);
+        }
+
+        AccountOverviewPage accountPage = login(username, password);
+        if (accountPage.isAccountOverviewPageLoaded()) {
+            SessionCache.store(username, driver.manage().getCookies());
+        }
+        return accountPage;
+    }
+
+    /**
+     * Check for a logout link in a single script call, without waiting
+     */
+    private boolean isLoggedIn() {
+        Object loggedIn = ((JavascriptExecutor) driver).executeScript(
+                "return document.querySelector(\"a[href*='logout.htm']\") !== null;");
+        return Boolean.TRUE.equals(loggedIn);
+    }
+
     /**
      * Click on Register link
      */
@@ -96,7 +150,7 @@ public class HomePage extends BasePage {
      * Check if error message is displayed
      */
     public boolean isErrorMessageDisplayed() {
-        return isElementDisplayed(errorMessage);
+        return isElementDisplayed(ERROR_MESSAGE);
     }
 
     /**
@@ -146,7 +200,7 @@ public class HomePage extends BasePage {
                 isDisplayed = isElementDisplayed(locationsLink);
                 break;
         }
-        LoggerUtil.info(linkName + " navigation link displayed: " + isDisplayed);
+        LoggerUtil.info("{} navigation link displayed: {}", linkName, isDisplayed);
         return isDisplayed;
     }
 }
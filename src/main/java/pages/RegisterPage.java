@@ -1,49 +1,32 @@
 package pages;
 
 import base.BasePage;
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import utils.LoggerUtil;
 
+import java.time.Duration;
+
 /**
  * RegisterPage - Page Object for Registration Page
  */
 public class RegisterPage extends BasePage {
 
     // Page Elements
-    @FindBy(id = "customer.firstName")
-    private WebElement firstNameField;
-
-    @FindBy(id = "customer.lastName")
-    private WebElement lastNameField;
-
-    @FindBy(id = "customer.address.street")
-    private WebElement addressField;
-
-    @FindBy(id = "customer.address.city")
-    private WebElement cityField;
-
-    @FindBy(id = "customer.address.state")
-    private WebElement stateField;
-
-    @FindBy(id = "customer.address.zipCode")
-    private WebElement zipCodeField;
-
-    @FindBy(id = "customer.phoneNumber")
-    private WebElement phoneField;
-
-    @FindBy(id = "customer.ssn")
-    private WebElement ssnField;
-
-    @FindBy(id = "customer.username")
-    private WebElement usernameField;
-
-    @FindBy(id = "customer.password")
-    private WebElement passwordField;
-
-    @FindBy(id = "repeatedPassword")
-    private WebElement confirmPasswordField;
+    // Form fields, located inside the fillForm script
+    private static final By FIRST_NAME_FIELD = By.id("customer.firstName");
+    private static final By LAST_NAME_FIELD = By.id("customer.lastName");
+    private static final By ADDRESS_FIELD = By.id("customer.address.street");
+    private static final By CITY_FIELD = By.id("customer.address.city");
+    private static final By STATE_FIELD = By.id("customer.address.state");
+    private static final By ZIP_CODE_FIELD = By.id("customer.address.zipCode");
+    private static final By PHONE_FIELD = By.id("customer.phoneNumber");
+    private static final By SSN_FIELD = By.id("customer.ssn");
+    private static final By USERNAME_FIELD = By.id("customer.username");
+    private static final By PASSWORD_FIELD = By.id("customer.password");
+    private static final By CONFIRM_PASSWORD_FIELD = By.id("repeatedPassword");
 
     @FindBy(css = "input[type='submit'][value='Register']")
     private WebElement registerButton;
@@ -57,11 +40,9 @@ public class RegisterPage extends BasePage {
     @FindBy(css = "div#rightPanel p")
     private WebElement successMessage;
 
-    @FindBy(id = "customer.firstName.errors")
-    private WebElement firstNameError;
-
-    @FindBy(id = "customer.lastName.errors")
-    private WebElement lastNameError;
+    // Probed by locator so a missing element answers within probe.budget.ms
+    private static final By FIRST_NAME_ERROR = By.id("customer.firstName.errors");
+    private static final By LAST_NAME_ERROR = By.id("customer.lastName.errors");
 
     @FindBy(id = "customer.username.errors")
     private WebElement usernameError;
@@ -78,19 +59,20 @@ public class RegisterPage extends BasePage {
     public void registerUser(String firstName, String lastName, String address, String city,
                              String state, String zipCode, String phone, String ssn,
                              String username, String password) {
-        LoggerUtil.info("Registering new user: " + username);
+        LoggerUtil.info("Registering new user: {}", username);
         
-        enterText(firstNameField, firstName);
-        enterText(lastNameField, lastName);
-        enterText(addressField, address);
-        enterText(cityField, city);
-        enterText(stateField, state);
-        enterText(zipCodeField, zipCode);
-        enterText(phoneField, phone);
-        enterText(ssnField, ssn);
-        enterText(usernameField, username);
-        enterText(passwordField, password);
-        enterText(confirmPasswordField, password);
+        fillForm(new FormFields()
+                .set(FIRST_NAME_FIELD, firstName)
+                .set(LAST_NAME_FIELD, lastName)
+                .set(ADDRESS_FIELD, address)
+                .set(CITY_FIELD, city)
+                .set(STATE_FIELD, state)
+                .set(ZIP_CODE_FIELD, zipCode)
+                .set(PHONE_FIELD, phone)
+                .set(SSN_FIELD, ssn)
+                .set(USERNAME_FIELD, username)
+                .set(PASSWORD_FIELD, password)
+                .set(CONFIRM_PASSWORD_FIELD, password));
         
         clickElement(registerButton);
     }
@@ -111,10 +93,10 @@ public class RegisterPage extends BasePage {
             waitForElementToBeVisible(pageTitle);
             String titleText = pageTitle.getText();
             boolean isSuccessful = titleText.contains("Welcome") || titleText.contains("successfully created");
-            LoggerUtil.info("Registration successful: " + isSuccessful);
+            LoggerUtil.info("Registration successful: {}", isSuccessful);
             return isSuccessful;
         } catch (Exception e) {
-            LoggerUtil.error("Registration not successful: " + e.getMessage());
+            LoggerUtil.error("Registration not successful: {}", e.getMessage());
             return false;
         }
     }
@@ -138,7 +120,7 @@ public class RegisterPage extends BasePage {
             waitForElementToBeVisible(usernameError);
             String error = usernameError.getText();
             boolean isDisplayed = error.contains("already exists");
-            LoggerUtil.info("Username already exists error displayed: " + isDisplayed);
+            LoggerUtil.info("Username already exists error displayed: {}", isDisplayed);
             return isDisplayed;
         } catch (Exception e) {
             return false;
@@ -150,10 +132,12 @@ public class RegisterPage extends BasePage {
      */
     public boolean areRequiredFieldErrorsDisplayed() {
         try {
-            boolean firstNameErrorDisplayed = isElementDisplayed(firstNameError);
-            boolean lastNameErrorDisplayed = isElementDisplayed(lastNameError);
+            boolean firstNameErrorDisplayed = isElementDisplayed(FIRST_NAME_ERROR);
+            // Both errors come from the same submit: once one is shown the other needs no waiting
+            boolean lastNameErrorDisplayed = firstNameErrorDisplayed
+                    && isElementDisplayed(LAST_NAME_ERROR, Duration.ZERO);
             boolean isDisplayed = firstNameErrorDisplayed && lastNameErrorDisplayed;
-            LoggerUtil.info("Required field errors displayed: " + isDisplayed);
+            LoggerUtil.info("Required field errors displayed: {}", isDisplayed);
             return isDisplayed;
         } catch (Exception e) {
             return false;
@@ -1,17 +1,43 @@
 package pages;
 
 import base.BasePage;
+import base.ReadinessSpec;
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.ui.Select;
 import utils.LoggerUtil;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * TransferFundsPage - Page Object for Transfer Funds Page
  */
 public class TransferFundsPage extends BasePage {
 
+    /**
+     * What the application answered to Transfer
+     */
+    public enum TransferOutcome { COMPLETED, ERROR, FIELD_ERRORS, NO_RESPONSE }
+
+    // Title shown and both account dropdowns filled by their AJAX calls
+    private static final ReadinessSpec READY = ReadinessSpec.page("Transfer Funds")
+            .textContains("h1.title", "Transfer Funds")
+            .present("select#fromAccountId option")
+            .present("select#toAccountId option")
+            .networkIdle();
+
+    // Checked in this order on every poll
+    private static final Map<TransferOutcome, String> TRANSFER_OUTCOMES = new LinkedHashMap<>();
+
+    static {
+        TRANSFER_OUTCOMES.put(TransferOutcome.COMPLETED, "div#showResult h1");
+        TRANSFER_OUTCOMES.put(TransferOutcome.ERROR, "div#showError, p.error");
+        TRANSFER_OUTCOMES.put(TransferOutcome.FIELD_ERRORS, "[name$='.errors'], [id$='.errors'], span.error");
+    }
+
     // Page Elements
     @FindBy(id = "amount")
     private WebElement amountField;
@@ -34,8 +60,8 @@ public class TransferFundsPage extends BasePage {
     @FindBy(css = "p.error")
     private WebElement errorMessage;
 
-    @FindBy(css = "h1.title")
-    private WebElement pageTitle;
+    // Probed by locator so a missing element answers within probe.budget.ms
+    private static final By ERROR_MESSAGE = By.cssSelector("p.error");
 
     // Constructor
     public TransferFundsPage(WebDriver driver) {
@@ -48,9 +74,8 @@ public class TransferFundsPage extends BasePage {
      */
     public boolean isTransferFundsPageLoaded() {
         try {
-            waitForElementToBeVisible(pageTitle);
-            boolean isLoaded = pageTitle.getText().contains("Transfer Funds");
-            LoggerUtil.info("Transfer Funds page loaded: " + isLoaded);
+            boolean isLoaded = waitUntilReady(READY);
+            LoggerUtil.info("Transfer Funds page loaded: {}", isLoaded);
             return isLoaded;
         } catch (Exception e) {
             return false;
@@ -61,7 +86,7 @@ public class TransferFundsPage extends BasePage {
      * Transfer funds between accounts
      */
     public void transferFunds(String amount, String fromAccountIndex, String toAccountIndex) {
-        LoggerUtil.info("Transferring funds - Amount: " + amount);
+        LoggerUtil.info("Transferring funds - Amount: {}", amount);
         
         enterText(amountField, amount);
         
@@ -74,18 +99,29 @@ public class TransferFundsPage extends BasePage {
         clickElement(transferButton);
     }
 
+    /**
+     * Wait for the result of Transfer: the confirmation, an error, or field validation errors
+     */
+    public TransferOutcome awaitTransferOutcome() {
+        return awaitOutcome(TRANSFER_OUTCOMES, TransferOutcome.NO_RESPONSE);
+    }
+
     /**
      * Check if transfer was successful
      */
     public boolean isTransferSuccessful() {
         try {
-            waitForElementToBeVisible(resultTitle);
+            TransferOutcome outcome = awaitTransferOutcome();
+            if (outcome != TransferOutcome.COMPLETED) {
+                LoggerUtil.error("Transfer not successful: {}", outcome);
+                return false;
+            }
             String title = resultTitle.getText();
             boolean isSuccessful = title.contains("Transfer Complete");
-            LoggerUtil.info("Transfer successful: " + isSuccessful);
+            LoggerUtil.info("Transfer successful: {}", isSuccessful);
             return isSuccessful;
         } catch (Exception e) {
-            LoggerUtil.error("Transfer not successful: " + e.getMessage());
+            LoggerUtil.error("Transfer not successful: {}", e.getMessage());
             return false;
         }
     }
@@ -106,6 +142,6 @@ public class TransferFundsPage extends BasePage {
      * Check if error message is displayed
      */
     public boolean isErrorMessageDisplayed() {
-        return isElementDisplayed(errorMessage);
+        return isElementDisplayed(ERROR_MESSAGE);
     }
 }
@@ -0,0 +1,295 @@
+package runner;
+
+import listeners.TestDurations;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import org.testng.xml.internal.Parser;
+import utils.LoggerUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * ShardPlanner - Splits TestNG suites into balanced shards using historical test durations
+ * Each included test method (or each class without explicit includes) is a unit of work;
+ * units are assigned longest-first to the currently lightest shard (LPT bin packing).
+ * Methods marked @SplitAcrossShards go to every shard, each shard running its slice of the rows.
+ */
+public class ShardPlanner {
+    /** Assumed duration for tests with no history when no history exists at all */
+    private static final long DEFAULT_DURATION_MILLIS = 30_000;
+
+    private final TestDurations history;
+
+    public ShardPlanner(TestDurations history) {
+        this.history = history;
+    }
+
+    /**
+     * Plan shards for a suite file and write one TestNG XML per shard into outputDir
+     */
+    public List<File> writeShards(File suiteFile, int shardCount, File outputDir) throws IOException {
+        List<XmlSuite> suites = new ArrayList<>();
+        for (XmlSuite suite : new Parser(suiteFile.getPath()).parseToList()) {
+            addWithChildren(suite, suites);
+        }
+        List<Shard> shards = plan(suites, shardCount);
+
+        outputDir.mkdirs();
+        List<File> files = new ArrayList<>();
+        for (Shard shard : shards) {
+            if (shard.units.isEmpty()) {
+                continue;
+            }
+            File file = new File(outputDir, "testng-shard-" + shard.index + ".xml");
+            Files.write(file.toPath(), shard.toSuite(shardCount).toXml().getBytes(StandardCharsets.UTF_8));
+            files.add(file);
+            LoggerUtil.info("Shard {}: {} unit(s), estimated {} ms", shard.index, shard.units.size(), shard.load);
+        }
+        return files;
+    }
+
+    /**
+     * Assign every unit of work in the suites to one of shardCount shards
+     */
+    public List<Shard> plan(List<XmlSuite> suites, int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+        long fallback = history.getMean().orElse(DEFAULT_DURATION_MILLIS);
+
+        List<Unit> units = new ArrayList<>();
+        List<Unit> splitUnits = new ArrayList<>();
+        int ordinal = 0;
+        for (XmlSuite suite : suites) {
+            for (XmlTest test : suite.getTests()) {
+                for (XmlClass xmlClass : test.getXmlClasses()) {
+                    List<String> methods = new ArrayList<>();
+                    for (XmlInclude include : xmlClass.getIncludedMethods()) {
+                        methods.add(include.getName());
+                    }
+                    List<String> split = splitMethods(xmlClass.getName());
+                    if (methods.isEmpty() && !split.isEmpty()) {
+                        // Plan the class per method so its split methods can go everywhere
+                        methods.addAll(testMethods(xmlClass.getName()));
+                    }
+                    if (methods.isEmpty()) {
+                        long duration = history.getClassTotal(xmlClass.getName()).orElse(fallback);
+                        units.add(new Unit(ordinal++, suite, test, xmlClass.getName(), null, duration));
+                        continue;
+                    }
+                    for (String method : methods) {
+                        long duration = history.get(TestDurations.key(xmlClass.getName(), method)).orElse(fallback);
+                        Unit unit = new Unit(ordinal++, suite, test, xmlClass.getName(), method, duration);
+                        (split.contains(method) ? splitUnits : units).add(unit);
+                    }
+                }
+            }
+        }
+
+        List<Shard> shards = new ArrayList<>();
+        PriorityQueue<Shard> lightestFirst = new PriorityQueue<>(
+                Comparator.comparingLong((Shard shard) -> shard.load).thenComparingInt(shard -> shard.index));
+        for (int i = 0; i < shardCount; i++) {
+            Shard shard = new Shard(i);
+            // Split units run in every shard; their recorded duration is already per shard
+            for (Unit unit : splitUnits) {
+                shard.units.add(unit);
+                shard.load += unit.duration;
+            }
+            shards.add(shard);
+            lightestFirst.add(shard);
+        }
+
+        units.sort(Comparator.comparingLong((Unit unit) -> unit.duration).reversed());
+        for (Unit unit : units) {
+            Shard shard = lightestFirst.poll();
+            shard.units.add(unit);
+            shard.load += unit.duration;
+            lightestFirst.add(shard);
+        }
+        return shards;
+    }
+
+    /**
+     * Add a suite and, depth first, the suites it includes through <suite-files>
+     */
+    private static void addWithChildren(XmlSuite suite, List<XmlSuite> suites) {
+        suites.add(suite);
+        for (XmlSuite child : suite.getChildSuites()) {
+            addWithChildren(child, suites);
+        }
+    }
+
+    /**
+     * Names of the class's test methods marked @SplitAcrossShards; none when it cannot be loaded
+     */
+    private static List<String> splitMethods(String className) {
+        List<String> names = new ArrayList<>();
+        for (Method method : methodsOf(className)) {
+            if (method.isAnnotationPresent(SplitAcrossShards.class)) {
+                names.add(method.getName());
+            }
+        }
+        return names;
+    }
+
+    private static List<String> testMethods(String className) {
+        List<String> names = new ArrayList<>();
+        for (Method method : methodsOf(className)) {
+            if (method.isAnnotationPresent(Test.class) && !names.contains(method.getName())) {
+                names.add(method.getName());
+            }
+        }
+        return names;
+    }
+
+    private static Method[] methodsOf(String className) {
+        try {
+            return Class.forName(className, false, ShardPlanner.class.getClassLoader()).getMethods();
+        } catch (ClassNotFoundException | LinkageError e) {
+            return new Method[0];
+        }
+    }
+
+    /**
+     * One test method (or whole class) with its expected duration
+     */
+    private static class Unit {
+        private final int ordinal;
+        private final XmlSuite suite;
+        private final XmlTest test;
+        private final String className;
+        private final String methodName;
+        private final long duration;
+
+        private Unit(int ordinal, XmlSuite suite, XmlTest test, String className, String methodName,
+                     long duration) {
+            this.ordinal = ordinal;
+            this.suite = suite;
+            this.test = test;
+            this.className = className;
+            this.methodName = methodName;
+            this.duration = duration;
+        }
+    }
+
+    /**
+     * A set of units that runs in one forked JVM
+     */
+    public static class Shard {
+        private final int index;
+        private final List<Unit> units = new ArrayList<>();
+        private long load;
+
+        private Shard(int index) {
+            this.index = index;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public long getLoad() {
+            return load;
+        }
+
+        public int size() {
+            return units.size();
+        }
+
+        /**
+         * Rebuild a suite holding only this shard's units, keeping the original test and class layout
+         * Units may come from several <suite>s (a suite file with <suite-files>): each <test> takes
+         * its own suite's parameters, and the shard runs the listeners of all of them.
+         */
+        private XmlSuite toSuite(int shardCount) {
+            XmlSuite source = units.get(0).suite;
+            XmlSuite suite = new XmlSuite();
+            suite.setName(source.getName() + " [shard " + (index + 1) + " of " + shardCount + "]");
+            suite.setVerbose(source.getVerbose());
+
+            // Group units by their original <test>, then by class, preserving declaration order;
+            // XmlTest equality is by content, so tests of the same name in two suites are told apart by identity
+            Map<XmlTest, Map<String, List<Unit>>> byTest = new IdentityHashMap<>();
+            List<XmlTest> sourceTests = new ArrayList<>();
+            List<String> listeners = new ArrayList<>();
+            List<Unit> ordered = new ArrayList<>(units);
+            ordered.sort(Comparator.comparingInt((Unit unit) -> unit.ordinal));
+            for (Unit unit : ordered) {
+                if (!byTest.containsKey(unit.test)) {
+                    sourceTests.add(unit.test);
+                }
+                byTest.computeIfAbsent(unit.test, key -> new LinkedHashMap<>())
+                        .computeIfAbsent(unit.className, key -> new ArrayList<>())
+                        .add(unit);
+                for (String listener : unit.suite.getListeners()) {
+                    if (!listeners.contains(listener)) {
+                        listeners.add(listener);
+                    }
+                }
+            }
+            suite.setListeners(listeners);
+
+            Set<String> testNames = new HashSet<>();
+            for (XmlTest sourceTest : sourceTests) {
+                XmlTest test = new XmlTest(suite);
+                // TestNG rejects two <test>s of one name in a suite
+                String name = sourceTest.getName();
+                if (!testNames.add(name)) {
+                    name = name + " (" + sourceTest.getSuite().getName() + ")";
+                    testNames.add(name);
+                }
+                test.setName(name);
+                test.setPreserveOrder(sourceTest.getPreserveOrder());
+                test.setParameters(parametersOf(sourceTest));
+
+                List<XmlClass> classes = new ArrayList<>();
+                for (Map.Entry<String, List<Unit>> classEntry : byTest.get(sourceTest).entrySet()) {
+                    XmlClass xmlClass = new XmlClass(classEntry.getKey(), false);
+                    List<XmlInclude> includes = new ArrayList<>();
+                    for (Unit unit : classEntry.getValue()) {
+                        if (unit.methodName != null) {
+                            includes.add(new XmlInclude(unit.methodName));
+                        }
+                    }
+                    xmlClass.setIncludedMethods(includes);
+                    classes.add(xmlClass);
+                }
+                test.setXmlClasses(classes);
+            }
+            return suite;
+        }
+
+        /**
+         * The parameters a test sees: its enclosing suites' (outermost first), then its own
+         */
+        private static Map<String, String> parametersOf(XmlTest test) {
+            List<XmlSuite> enclosing = new ArrayList<>();
+            for (XmlSuite suite = test.getSuite(); suite != null; suite = suite.getParentSuite()) {
+                enclosing.add(0, suite);
+            }
+            Map<String, String> parameters = new LinkedHashMap<>();
+            for (XmlSuite suite : enclosing) {
+                parameters.putAll(suite.getParameters());
+            }
+            parameters.putAll(test.getLocalParameters());
+            return parameters;
+        }
+    }
+}
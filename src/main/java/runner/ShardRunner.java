@@ -0,0 +1,129 @@
+package runner;
+
+import listeners.TestDurationListener;
+import listeners.TestDurations;
+import utils.ConfigReader;
+import utils.LoggerUtil;
+import utils.UniqueDataGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ShardRunner - Runs a TestNG suite as N duration-balanced shards, each in its own JVM
+ * Usage: ShardRunner <suite.xml> <shardCount> <outputDir>
+ *
+ * Shard suites are planned from the duration history, every shard is launched as a separate
+ * TestNG process, and once all shards finish their results are merged into
+ * outputDir/testng-results.xml and their durations folded back into the history file
+ */
+public class ShardRunner {
+    /** System properties handed down to every shard JVM when set */
+    private static final List<String> FORWARDED_PROPERTIES = Arrays.asList(
+            "parallel.mode", "thread.count");
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 3) {
+            System.err.println("Usage: ShardRunner <suite.xml> <shardCount> <outputDir>");
+            System.exit(2);
+        }
+        // Resolve and validate the configuration before any shard is launched
+        ConfigReader.get();
+        File suiteFile = new File(args[0]);
+        int shardCount = Integer.parseInt(args[1].trim());
+        File outputDir = new File(args[2]);
+        File historyFile = new File(System.getProperty(TestDurationListener.DURATIONS_FILE_PROPERTY,
+                TestDurationListener.DEFAULT_DURATIONS_FILE));
+
+        TestDurations history = TestDurations.load(historyFile);
+        List<File> shardSuites = new ShardPlanner(history).writeShards(suiteFile, shardCount, outputDir);
+
+        List<Process> processes = new ArrayList<>();
+        List<File> shardDirs = new ArrayList<>();
+        for (int i = 0; i < shardSuites.size(); i++) {
+            File shardDir = new File(outputDir, "shard-" + i);
+            deleteRecursively(shardDir);
+            shardDir.mkdirs();
+            shardDirs.add(shardDir);
+            processes.add(launch(shardSuites.get(i), shardDir, i, shardSuites.size()));
+        }
+
+        boolean allExitedCleanly = true;
+        for (int i = 0; i < processes.size(); i++) {
+            int exitCode = processes.get(i).waitFor();
+            LoggerUtil.info("Shard {} finished with exit code {} (output: {})", i, exitCode,
+                    new File(shardDirs.get(i), "console.log").getPath());
+            allExitedCleanly &= exitCode == 0;
+        }
+
+        List<File> resultFiles = new ArrayList<>();
+        for (File shardDir : shardDirs) {
+            resultFiles.add(new File(shardDir, "testng-results.xml"));
+            File shardDurations = new File(shardDir, "durations.properties");
+            if (shardDurations.isFile()) {
+                history.mergeAll(TestDurations.load(shardDurations));
+            }
+        }
+        history.save(historyFile);
+
+        File mergedResults = new File(outputDir, "testng-results.xml");
+        int failed = TestResultsMerger.merge(resultFiles, mergedResults);
+        LoggerUtil.info("Merged results of {} shard(s) into {} - failed tests: {}", shardDirs.size(),
+                mergedResults.getPath(), failed);
+
+        System.exit(allExitedCleanly && failed == 0 ? 0 : 1);
+    }
+
+    /**
+     * Start one shard as a TestNG process on the current classpath
+     */
+    private static Process launch(File suite, File shardDir, int index, int count) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(new File(System.getProperty("java.home"), "bin/java").getPath());
+        String jvmArgs = System.getProperty("shard.jvm.args", "-Xmx1024m").trim();
+        if (!jvmArgs.isEmpty()) {
+            command.addAll(Arrays.asList(jvmArgs.split("\\s+")));
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("-Dshard.index=" + index);
+        command.add("-Dshard.count=" + count);
+        command.add("-D" + TestDurationListener.DURATIONS_FILE_PROPERTY + "="
+                + new File(shardDir, "durations.properties").getPath());
+        for (String property : FORWARDED_PROPERTIES) {
+            String value = System.getProperty(property);
+            if (value != null) {
+                command.add("-D" + property + "=" + value);
+            }
+        }
+        for (Map.Entry<String, String> override : ConfigReader.systemOverrides().entrySet()) {
+            command.add("-D" + override.getKey() + "=" + override.getValue());
+        }
+        // One run id for all shards; the shard index keeps their generated data apart
+        command.add("-Ddata.run.id=" + UniqueDataGenerator.getRunId());
+        command.add("org.testng.TestNG");
+        command.add("-d");
+        command.add(shardDir.getPath());
+        command.add(suite.getPath());
+
+        File console = new File(shardDir, "console.log");
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(console)
+                .start();
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,16 @@
+package runner;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * SplitAcrossShards - Marks a data-driven test whose rows are divided between shards
+ * ShardPlanner includes such a method in every shard instead of assigning it to one, and the
+ * method's data provider reads only its shard's rows (see utils.DatasetReader)
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface SplitAcrossShards {
+}
@@ -0,0 +1,67 @@
+package runner;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.File;
+import java.util.List;
+
+/**
+ * TestResultsMerger - Combines the testng-results.xml of every shard into one report
+ * Counters on the root element are summed and each shard's suite elements are appended
+ */
+public class TestResultsMerger {
+    private static final String[] COUNTERS = {"total", "passed", "failed", "skipped", "ignored"};
+
+    /**
+     * Merge shard result files into target; returns the merged number of failed tests
+     */
+    public static int merge(List<File> resultFiles, File target) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        DocumentBuilder builder = factory.newDocumentBuilder();
+
+        Document merged = builder.newDocument();
+        Element root = merged.createElement("testng-results");
+        merged.appendChild(root);
+        long[] totals = new long[COUNTERS.length];
+
+        for (File resultFile : resultFiles) {
+            if (!resultFile.isFile()) {
+                continue;
+            }
+            Element shardRoot = builder.parse(resultFile).getDocumentElement();
+            for (int i = 0; i < COUNTERS.length; i++) {
+                String value = shardRoot.getAttribute(COUNTERS[i]);
+                if (!value.isEmpty()) {
+                    totals[i] += Long.parseLong(value);
+                }
+            }
+            NodeList children = shardRoot.getChildNodes();
+            for (int i = 0; i < children.getLength(); i++) {
+                Node child = children.item(i);
+                if (child.getNodeType() == Node.ELEMENT_NODE) {
+                    root.appendChild(merged.importNode(child, true));
+                }
+            }
+        }
+        for (int i = 0; i < COUNTERS.length; i++) {
+            root.setAttribute(COUNTERS[i], String.valueOf(totals[i]));
+        }
+
+        target.getAbsoluteFile().getParentFile().mkdirs();
+        Transformer transformer = TransformerFactory.newInstance().newTransformer();
+        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+        transformer.transform(new DOMSource(merged), new StreamResult(target));
+        return (int) totals[2];
+    }
+}
@@ -0,0 +1,183 @@
+package server;
+
+import api.AccountType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * InMemoryBank - Customers and accounts behind the local ParaBank stand-in
+ * All operations are synchronized; the state lives only as long as the JVM
+ */
+public class InMemoryBank {
+    static final BigDecimal OPENING_BALANCE = new BigDecimal("515.50");
+    static final BigDecimal MINIMUM_DEPOSIT = new BigDecimal("100.00");
+
+    private final Map<Long, CustomerRecord> customers = new LinkedHashMap<>();
+    private final Map<Long, AccountRecord> accounts = new LinkedHashMap<>();
+    private long nextCustomerId = 12212;
+    private long nextAccountId = 13344;
+
+    public InMemoryBank() {
+        // Same demo user the public site offers
+        CustomerRecord john = register("John", "Smith", "john", "demo");
+        openAccount(john.id, AccountType.SAVINGS, john.accountIds.get(0));
+        accounts.get(john.accountIds.get(0)).balance = new BigDecimal("1500.00");
+        accounts.get(john.accountIds.get(1)).balance = new BigDecimal("1000.00");
+    }
+
+    /**
+     * Register a customer with one checking account holding the opening balance
+     */
+    public synchronized CustomerRecord register(String firstName, String lastName, String username, String password) {
+        if (findByUsername(username) != null) {
+            throw new IllegalArgumentException("This username already exists.");
+        }
+        CustomerRecord customer = new CustomerRecord(nextCustomerId, firstName, lastName, username, password);
+        nextCustomerId += 111;
+        customers.put(customer.id, customer);
+
+        AccountRecord account = new AccountRecord(nextAccountId, customer.id, AccountType.CHECKING, OPENING_BALANCE);
+        nextAccountId += 111;
+        accounts.put(account.id, account);
+        customer.accountIds.add(account.id);
+        return customer;
+    }
+
+    public synchronized CustomerRecord findByUsername(String username) {
+        for (CustomerRecord customer : customers.values()) {
+            if (customer.username.equals(username)) {
+                return customer;
+            }
+        }
+        return null;
+    }
+
+    public synchronized CustomerRecord authenticate(String username, String password) {
+        CustomerRecord customer = findByUsername(username);
+        return customer != null && customer.password.equals(password) ? customer : null;
+    }
+
+    public synchronized CustomerRecord getCustomer(long customerId) {
+        return customers.get(customerId);
+    }
+
+    public synchronized AccountRecord getAccount(long accountId) {
+        AccountRecord account = accounts.get(accountId);
+        return account == null ? null : account.copy();
+    }
+
+    /**
+     * Get a customer's accounts as snapshots, in opening order
+     */
+    public synchronized List<AccountRecord> getAccounts(long customerId) {
+        List<AccountRecord> result = new ArrayList<>();
+        CustomerRecord customer = customers.get(customerId);
+        if (customer != null) {
+            for (Long accountId : customer.accountIds) {
+                result.add(accounts.get(accountId).copy());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Open an account funded with the minimum deposit taken from an existing account
+     */
+    public synchronized AccountRecord openAccount(long customerId, AccountType type, long fromAccountId) {
+        CustomerRecord customer = requireCustomer(customerId);
+        AccountRecord from = requireAccount(fromAccountId);
+        from.balance = from.balance.subtract(MINIMUM_DEPOSIT);
+
+        AccountRecord account = new AccountRecord(nextAccountId, customerId, type, MINIMUM_DEPOSIT);
+        nextAccountId += 111;
+        accounts.put(account.id, account);
+        customer.accountIds.add(account.id);
+        return account.copy();
+    }
+
+    public synchronized void deposit(long accountId, BigDecimal amount) {
+        AccountRecord account = requireAccount(accountId);
+        account.balance = account.balance.add(scale(amount));
+    }
+
+    public synchronized void withdraw(long accountId, BigDecimal amount) {
+        AccountRecord account = requireAccount(accountId);
+        account.balance = account.balance.subtract(scale(amount));
+    }
+
+    /**
+     * Move funds between accounts; overdrafts are allowed, as on the public site
+     */
+    public synchronized void transfer(long fromAccountId, long toAccountId, BigDecimal amount) {
+        AccountRecord from = requireAccount(fromAccountId);
+        AccountRecord to = requireAccount(toAccountId);
+        from.balance = from.balance.subtract(scale(amount));
+        to.balance = to.balance.add(scale(amount));
+    }
+
+    private CustomerRecord requireCustomer(long customerId) {
+        CustomerRecord customer = customers.get(customerId);
+        if (customer == null) {
+            throw new IllegalArgumentException("Could not find customer #" + customerId);
+        }
+        return customer;
+    }
+
+    private AccountRecord requireAccount(long accountId) {
+        AccountRecord account = accounts.get(accountId);
+        if (account == null) {
+            throw new IllegalArgumentException("Could not find account #" + accountId);
+        }
+        return account;
+    }
+
+    private static BigDecimal scale(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Customer row
+     */
+    public static class CustomerRecord {
+        final long id;
+        final String firstName;
+        final String lastName;
+        final String username;
+        final String password;
+        final List<Long> accountIds = new ArrayList<>();
+
+        CustomerRecord(long id, String firstName, String lastName, String username, String password) {
+            this.id = id;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.username = username;
+            this.password = password;
+        }
+    }
+
+    /**
+     * Account row; balances are mutated only under the bank's lock
+     */
+    public static class AccountRecord {
+        final long id;
+        final long customerId;
+        final AccountType type;
+        BigDecimal balance;
+
+        AccountRecord(long id, long customerId, AccountType type, BigDecimal balance) {
+            this.id = id;
+            this.customerId = customerId;
+            this.type = type;
+            this.balance = balance;
+        }
+
+        AccountRecord copy() {
+            return new AccountRecord(id, customerId, type, balance);
+        }
+    }
+}
@@ -0,0 +1,632 @@
+package server;
+
+import api.AccountType;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import server.InMemoryBank.AccountRecord;
+import server.InMemoryBank.CustomerRecord;
+import utils.ConfigReader;
+import utils.LoggerUtil;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormat;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * LocalParaBankServer - Embedded, in-JVM stand-in for the ParaBank pages the page objects use
+ * Serves index/login, register, overview, transfer, bill pay and the informational pages with the
+ * same locators as the public site, plus the services/bank REST calls used by api.ParaBankClient.
+ * State is kept in an InMemoryBank, so runs are deterministic and need no network.
+ *
+ * Enable with app.target=local; BaseTest then starts the server and points base.url at it.
+ */
+public class LocalParaBankServer {
+    private static final String CONTEXT = "/parabank/";
+    private static final String SESSION_COOKIE = "JSESSIONID";
+    private static volatile LocalParaBankServer instance;
+
+    private final InMemoryBank bank = new InMemoryBank();
+    private final Map<String, Long> sessions = new ConcurrentHashMap<>();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private LocalParaBankServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "local-parabank");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext(CONTEXT, this::handle);
+        server.start();
+    }
+
+    /**
+     * Start the shared server if app.target=local and point base.url at it
+     */
+    public static void startIfEnabled() {
+        if (!"local".equalsIgnoreCase(ConfigReader.getProperty("app.target"))) {
+            return;
+        }
+        String baseUrl = ensureStarted().getBaseUrl();
+        ConfigReader.override("base.url", baseUrl);
+        LoggerUtil.info("Using local ParaBank stand-in at {}", baseUrl);
+    }
+
+    /**
+     * Get the shared server, starting it on local.server.port (0 picks a free port)
+     */
+    public static LocalParaBankServer ensureStarted() {
+        if (instance == null) {
+            synchronized (LocalParaBankServer.class) {
+                if (instance == null) {
+                    int port = ConfigReader.get().getInt("local.server.port");
+                    try {
+                        instance = new LocalParaBankServer(port);
+                    } catch (IOException e) {
+                        throw new RuntimeException("Failed to start local ParaBank server on port " + port, e);
+                    }
+                    Runtime.getRuntime().addShutdownHook(new Thread(LocalParaBankServer::stopShared,
+                            "local-parabank-shutdown"));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Stop the shared server if it is running
+     */
+    public static void stopShared() {
+        LocalParaBankServer running = instance;
+        instance = null;
+        if (running != null) {
+            running.server.stop(0);
+            running.executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Get the home page URL of this server
+     */
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + CONTEXT + "index.htm";
+    }
+
+    public InMemoryBank getBank() {
+        return bank;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath().substring(CONTEXT.length());
+            if (path.startsWith("services/bank/")) {
+                handleService(exchange, path.substring("services/bank/".length()));
+            } else {
+                handlePage(exchange, path);
+            }
+        } catch (Exception e) {
+            LoggerUtil.error("Local ParaBank request failed: {}", e.getMessage());
+            send(exchange, 500, "text/plain", "Internal error: " + e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // ------------------------------------------------------------------ HTML pages
+
+    private void handlePage(HttpExchange exchange, String page) throws IOException {
+        boolean post = "POST".equalsIgnoreCase(exchange.getRequestMethod());
+        Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+        if (post) {
+            params.putAll(parseQuery(readBody(exchange)));
+        }
+        CustomerRecord customer = currentCustomer(exchange);
+
+        switch (page) {
+            case "":
+            case "index.htm":
+                sendPage(exchange, customer, "<h1 class=\"title\">ATM Services</h1>"
+                        + "<p>Welcome to the local ParaBank stand-in.</p>");
+                break;
+            case "login.htm":
+                login(exchange, params);
+                break;
+            case "logout.htm":
+                String sessionId = sessionId(exchange);
+                if (sessionId != null) {
+                    sessions.remove(sessionId);
+                }
+                redirect(exchange, "index.htm");
+                break;
+            case "register.htm":
+                register(exchange, customer, post, params);
+                break;
+            case "overview.htm":
+                if (requireLogin(exchange, customer)) {
+                    sendPage(exchange, customer, overview(customer));
+                }
+                break;
+            case "transfer.htm":
+                if (requireLogin(exchange, customer)) {
+                    transfer(exchange, customer, post, params);
+                }
+                break;
+            case "billpay.htm":
+                if (requireLogin(exchange, customer)) {
+                    billPay(exchange, customer, post, params);
+                }
+                break;
+            case "about.htm":
+                sendPage(exchange, customer, "<h1 class=\"title\">ParaBank is a demo site</h1>"
+                        + "<p>This local stand-in serves the pages used by the automation framework.</p>");
+                break;
+            case "services.htm":
+            case "products.htm":
+            case "locations.htm":
+            case "admin.htm":
+                String name = page.substring(0, page.indexOf('.'));
+                sendPage(exchange, customer, "<h1 class=\"title\">" + Character.toUpperCase(name.charAt(0))
+                        + name.substring(1) + "</h1>");
+                break;
+            default:
+                send(exchange, 404, "text/plain", "Not found: " + page);
+        }
+    }
+
+    private void login(HttpExchange exchange, Map<String, String> params) throws IOException {
+        CustomerRecord customer = bank.authenticate(params.getOrDefault("username", ""),
+                params.getOrDefault("password", ""));
+        if (customer == null) {
+            sendPage(exchange, null, "<h1 class=\"title\">Error!</h1>"
+                    + "<p class=\"error\">The username and password could not be verified.</p>");
+            return;
+        }
+        startSession(exchange, customer);
+        redirect(exchange, "overview.htm");
+    }
+
+    private void register(HttpExchange exchange, CustomerRecord current, boolean post, Map<String, String> form)
+            throws IOException {
+        Map<String, String> errors = new LinkedHashMap<>();
+        if (post) {
+            requireField(form, errors, "customer.firstName", "First name is required.");
+            requireField(form, errors, "customer.lastName", "Last name is required.");
+            requireField(form, errors, "customer.address.street", "Address is required.");
+            requireField(form, errors, "customer.address.city", "City is required.");
+            requireField(form, errors, "customer.address.state", "State is required.");
+            requireField(form, errors, "customer.address.zipCode", "Zip Code is required.");
+            requireField(form, errors, "customer.ssn", "Social Security Number is required.");
+            requireField(form, errors, "customer.username", "Username is required.");
+            requireField(form, errors, "customer.password", "Password is required.");
+            requireField(form, errors, "repeatedPassword", "Password confirmation is required.");
+            String username = form.getOrDefault("customer.username", "");
+            if (!username.isEmpty() && bank.findByUsername(username) != null) {
+                errors.put("customer.username", "This username already exists.");
+            }
+            if (!errors.containsKey("repeatedPassword")
+                    && !form.getOrDefault("customer.password", "").equals(form.get("repeatedPassword"))) {
+                errors.put("repeatedPassword", "Passwords did not match.");
+            }
+
+            if (errors.isEmpty()) {
+                CustomerRecord customer;
+                try {
+                    customer = bank.register(form.get("customer.firstName"), form.get("customer.lastName"),
+                            username, form.get("customer.password"));
+                } catch (IllegalArgumentException e) {
+                    errors.put("customer.username", e.getMessage());
+                    customer = null;
+                }
+                if (customer != null) {
+                    startSession(exchange, customer);
+                    sendPage(exchange, customer, "<h1 class=\"title\">Welcome " + escape(username) + "</h1>"
+                            + "<p>Your account was created successfully. You are now logged in.</p>");
+                    return;
+                }
+            }
+        }
+
+        String[][] fields = {
+                {"customer.firstName", "First Name:", "text"},
+                {"customer.lastName", "Last Name:", "text"},
+                {"customer.address.street", "Address:", "text"},
+                {"customer.address.city", "City:", "text"},
+                {"customer.address.state", "State:", "text"},
+                {"customer.address.zipCode", "Zip Code:", "text"},
+                {"customer.phoneNumber", "Phone #:", "text"},
+                {"customer.ssn", "SSN:", "text"},
+                {"customer.username", "Username:", "text"},
+                {"customer.password", "Password:", "password"},
+                {"repeatedPassword", "Confirm:", "password"}
+        };
+        StringBuilder html = new StringBuilder("<h1 class=\"title\">Signing up is easy!</h1>")
+                .append("<form id=\"customerForm\" method=\"post\" action=\"register.htm\"><table class=\"form2\">");
+        for (String[] field : fields) {
+            String value = "password".equals(field[2]) ? "" : form.getOrDefault(field[0], "");
+            html.append("<tr><td align=\"right\">").append(field[1]).append("</td><td>")
+                    .append("<input id=\"").append(field[0]).append("\" name=\"").append(field[0])
+                    .append("\" class=\"input\" type=\"").append(field[2]).append("\" value=\"")
+                    .append(escape(value)).append("\"/></td><td>");
+            if (errors.containsKey(field[0])) {
+                html.append("<span id=\"").append(field[0]).append(".errors\" class=\"error\">")
+                        .append(errors.get(field[0])).append("</span>");
+            }
+            html.append("</td></tr>");
+        }
+        html.append("<tr><td></td><td><input type=\"submit\" class=\"button\" value=\"Register\"/></td></tr>")
+                .append("</table></form>");
+        sendPage(exchange, current, html.toString());
+    }
+
+    private String overview(CustomerRecord customer) {
+        StringBuilder html = new StringBuilder("<h1 class=\"title\">Accounts Overview</h1>")
+                .append("<table id=\"accountTable\" class=\"gridTable\"><thead><tr><th>Account</th>")
+                .append("<th>Balance*</th><th>Available Amount</th></tr></thead><tbody>");
+        BigDecimal total = BigDecimal.ZERO;
+        for (AccountRecord account : bank.getAccounts(customer.id)) {
+            BigDecimal available = account.balance.signum() > 0 ? account.balance : BigDecimal.ZERO;
+            html.append("<tr><td><a href=\"activity.htm?id=").append(account.id).append("\">").append(account.id)
+                    .append("</a></td><td>").append(money(account.balance)).append("</td><td>")
+                    .append(money(available)).append("</td></tr>");
+            total = total.add(account.balance);
+        }
+        html.append("<tr><td align=\"right\"><b>Total</b></td><td><b>").append(money(total))
+                .append("</b></td><td>&nbsp;</td></tr></tbody>")
+                .append("<tfoot><tr><td colspan=\"3\" align=\"right\">")
+                .append("*Balance includes deposits that may be subject to holds</td></tr></tfoot></table>");
+        return html.toString();
+    }
+
+    private void transfer(HttpExchange exchange, CustomerRecord customer, boolean post, Map<String, String> form)
+            throws IOException {
+        if (post) {
+            try {
+                BigDecimal amount = new BigDecimal(form.getOrDefault("amount", "").trim());
+                long from = Long.parseLong(form.get("fromAccountId"));
+                long to = Long.parseLong(form.get("toAccountId"));
+                requireOwnAccount(customer, from);
+                requireOwnAccount(customer, to);
+                bank.transfer(from, to, amount);
+                sendPage(exchange, customer, "<div id=\"showResult\"><h1 class=\"title\">Transfer Complete!</h1>"
+                        + "<p>" + money(amount) + " has been transferred from account #" + from
+                        + " to account #" + to + ".</p></div>");
+            } catch (RuntimeException e) {
+                sendPage(exchange, customer, "<div id=\"showError\"><h1 class=\"title\">Error!</h1>"
+                        + "<p class=\"error\">An internal error has occurred and has been logged.</p></div>");
+            }
+            return;
+        }
+
+        String options = accountOptions(customer);
+        sendPage(exchange, customer, "<h1 class=\"title\">Transfer Funds</h1>"
+                + "<form method=\"post\" action=\"transfer.htm\">"
+                + "<p><b>Amount:</b> $<input id=\"amount\" name=\"amount\" type=\"text\" size=\"10\"/></p>"
+                + "<div>From account #<select id=\"fromAccountId\" name=\"fromAccountId\" class=\"input\">"
+                + options + "</select> to account #<select id=\"toAccountId\" name=\"toAccountId\" class=\"input\">"
+                + options + "</select></div>"
+                + "<div><input type=\"submit\" class=\"button\" value=\"Transfer\"/></div></form>");
+    }
+
+    private void billPay(HttpExchange exchange, CustomerRecord customer, boolean post, Map<String, String> form)
+            throws IOException {
+        Map<String, String> errors = new LinkedHashMap<>();
+        if (post) {
+            requireField(form, errors, "payee.name", "Payee name is required.");
+            requireField(form, errors, "payee.address.street", "Address is required.");
+            requireField(form, errors, "payee.address.city", "City is required.");
+            requireField(form, errors, "payee.address.state", "State is required.");
+            requireField(form, errors, "payee.address.zipCode", "Zip Code is required.");
+            requireField(form, errors, "payee.phoneNumber", "Phone number is required.");
+            requireField(form, errors, "payee.accountNumber", "Account number is required.");
+            requireField(form, errors, "verifyAccount", "Account number is required.");
+            requireField(form, errors, "amount", "The amount cannot be empty.");
+            BigDecimal amount = null;
+            if (!errors.containsKey("amount")) {
+                try {
+                    amount = new BigDecimal(form.get("amount").trim());
+                } catch (NumberFormatException e) {
+                    errors.put("amount", "Please enter a valid amount.");
+                }
+            }
+            if (!errors.containsKey("verifyAccount")
+                    && !form.getOrDefault("payee.accountNumber", "").equals(form.get("verifyAccount"))) {
+                errors.put("verifyAccount", "The account numbers do not match.");
+            }
+
+            if (errors.isEmpty()) {
+                long from = Long.parseLong(form.get("fromAccountId"));
+                requireOwnAccount(customer, from);
+                bank.withdraw(from, amount);
+                sendPage(exchange, customer, "<div id=\"billpayResult\"><h1 class=\"title\">Bill Payment Complete</h1>"
+                        + "<p>Bill Payment to " + escape(form.get("payee.name")) + " in the amount of "
+                        + money(amount) + " from account " + from + " was successful.</p></div>");
+                return;
+            }
+        }
+
+        String[][] fields = {
+                {"payee.name", "Payee Name:"},
+                {"payee.address.street", "Address:"},
+                {"payee.address.city", "City:"},
+                {"payee.address.state", "State:"},
+                {"payee.address.zipCode", "Zip Code:"},
+                {"payee.phoneNumber", "Phone #:"},
+                {"payee.accountNumber", "Account #:"},
+                {"verifyAccount", "Verify Account #:"},
+                {"amount", "Amount: $"}
+        };
+        StringBuilder html = new StringBuilder("<h1 class=\"title\">Bill Payment Service</h1>")
+                .append("<p>Enter payee information</p><form method=\"post\" action=\"billpay.htm\">")
+                .append("<table class=\"form2\">");
+        for (String[] field : fields) {
+            html.append("<tr><td align=\"right\">").append(field[1]).append("</td><td>")
+                    .append("<input class=\"input\" type=\"text\" name=\"").append(field[0]).append("\" value=\"")
+                    .append(escape(form.getOrDefault(field[0], ""))).append("\"/></td><td>");
+            if (errors.containsKey(field[0])) {
+                html.append("<span class=\"error\" name=\"").append(field[0]).append(".errors\">")
+                        .append(errors.get(field[0])).append("</span>");
+            }
+            html.append("</td></tr>");
+        }
+        html.append("<tr><td align=\"right\">From account #:</td><td>")
+                .append("<select name=\"fromAccountId\" class=\"input\">").append(accountOptions(customer))
+                .append("</select></td></tr>")
+                .append("<tr><td></td><td><input type=\"submit\" class=\"button\" value=\"Send Payment\"/></td></tr>")
+                .append("</table></form>");
+        sendPage(exchange, customer, html.toString());
+    }
+
+    private void sendPage(HttpExchange exchange, CustomerRecord customer, String rightPanel) throws IOException {
+        StringBuilder html = new StringBuilder("<!DOCTYPE html><html><head><title>ParaBank | Welcome | Online Banking")
+                .append("</title></head><body><div id=\"mainPanel\"><div id=\"topPanel\">")
+                .append("<div class=\"logo\"><a href=\"index.htm\">ParaBank</a></div>")
+                .append("<p class=\"caption\">Experience the difference</p></div>")
+                .append("<div id=\"headerPanel\"><ul class=\"leftmenu\">")
+                .append("<li><a href=\"about.htm\">About Us</a></li>")
+                .append("<li><a href=\"services.htm\">Services</a></li>")
+                .append("<li><a href=\"products.htm\">Products</a></li>")
+                .append("<li><a href=\"locations.htm\">Locations</a></li>")
+                .append("<li><a href=\"admin.htm\">Admin Page</a></li></ul></div>")
+                .append("<div id=\"bodyPanel\"><div id=\"leftPanel\">");
+        if (customer == null) {
+            html.append("<h2>Customer Login</h2><form name=\"login\" method=\"post\" action=\"login.htm\">")
+                    .append("<p><b>Username</b></p><input type=\"text\" class=\"input\" name=\"username\"/>")
+                    .append("<p><b>Password</b></p><input type=\"password\" class=\"input\" name=\"password\"/>")
+                    .append("<div class=\"login\"><input type=\"submit\" class=\"button\" value=\"Log In\"/></div>")
+                    .append("</form><p><a href=\"register.htm\">Register</a></p>");
+        } else {
+            html.append("<p class=\"smallText\"><b>Welcome</b> ").append(escape(customer.firstName)).append(' ')
+                    .append(escape(customer.lastName)).append("</p><h2>Account Services</h2><ul>")
+                    .append("<li><a href=\"overview.htm\">Accounts Overview</a></li>")
+                    .append("<li><a href=\"transfer.htm\">Transfer Funds</a></li>")
+                    .append("<li><a href=\"billpay.htm\">Bill Pay</a></li>")
+                    .append("<li><a href=\"logout.htm\">Log Out</a></li></ul>");
+        }
+        html.append("</div><div id=\"rightPanel\">").append(rightPanel)
+                .append("</div></div></div></body></html>");
+        send(exchange, 200, "text/html;charset=utf-8", html.toString());
+    }
+
+    private boolean requireLogin(HttpExchange exchange, CustomerRecord customer) throws IOException {
+        if (customer != null) {
+            return true;
+        }
+        sendPage(exchange, null, "<h1 class=\"title\">Error!</h1>"
+                + "<p class=\"error\">An internal error has occurred and has been logged.</p>");
+        return false;
+    }
+
+    private void requireOwnAccount(CustomerRecord customer, long accountId) {
+        AccountRecord account = bank.getAccount(accountId);
+        if (account == null || account.customerId != customer.id) {
+            throw new IllegalArgumentException("Account #" + accountId + " does not belong to customer");
+        }
+    }
+
+    private String accountOptions(CustomerRecord customer) {
+        StringBuilder options = new StringBuilder();
+        for (AccountRecord account : bank.getAccounts(customer.id)) {
+            options.append("<option value=\"").append(account.id).append("\">").append(account.id).append("</option>");
+        }
+        return options.toString();
+    }
+
+    private static void requireField(Map<String, String> form, Map<String, String> errors, String field,
+                                     String message) {
+        if (form.getOrDefault(field, "").trim().isEmpty()) {
+            errors.put(field, message);
+        }
+    }
+
+    // ------------------------------------------------------------------ REST services
+
+    private void handleService(HttpExchange exchange, String path) throws IOException {
+        Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+        String[] parts = path.split("/");
+        try {
+            if (parts[0].equals("login") && parts.length == 3) {
+                CustomerRecord customer = bank.authenticate(decode(parts[1]), decode(parts[2]));
+                if (customer == null) {
+                    send(exchange, 400, "text/plain", "Invalid username and/or password");
+                } else {
+                    sendXml(exchange, customerXml(customer));
+                }
+            } else if (parts[0].equals("customers") && parts.length == 3 && parts[2].equals("accounts")) {
+                StringBuilder xml = new StringBuilder("<accounts>");
+                for (AccountRecord account : bank.getAccounts(Long.parseLong(parts[1]))) {
+                    xml.append(accountXml(account));
+                }
+                sendXml(exchange, xml.append("</accounts>").toString());
+            } else if (parts[0].equals("customers") && parts.length == 2) {
+                CustomerRecord customer = bank.getCustomer(Long.parseLong(parts[1]));
+                if (customer == null) {
+                    send(exchange, 400, "text/plain", "Could not find customer #" + parts[1]);
+                } else {
+                    sendXml(exchange, customerXml(customer));
+                }
+            } else if (parts[0].equals("accounts") && parts.length == 2) {
+                AccountRecord account = bank.getAccount(Long.parseLong(parts[1]));
+                if (account == null) {
+                    send(exchange, 400, "text/plain", "Could not find account #" + parts[1]);
+                } else {
+                    sendXml(exchange, accountXml(account));
+                }
+            } else if (parts[0].equals("createAccount")) {
+                AccountType type = accountType(required(params, "newAccountType"));
+                sendXml(exchange, accountXml(bank.openAccount(Long.parseLong(required(params, "customerId")), type,
+                        Long.parseLong(required(params, "fromAccountId")))));
+            } else if (parts[0].equals("deposit")) {
+                BigDecimal amount = new BigDecimal(params.get("amount"));
+                bank.deposit(Long.parseLong(params.get("accountId")), amount);
+                send(exchange, 200, "text/plain", "Successfully deposited " + money(amount)
+                        + " to account #" + params.get("accountId"));
+            } else if (parts[0].equals("withdraw")) {
+                BigDecimal amount = new BigDecimal(params.get("amount"));
+                bank.withdraw(Long.parseLong(params.get("accountId")), amount);
+                send(exchange, 200, "text/plain", "Successfully withdrew " + money(amount)
+                        + " from account #" + params.get("accountId"));
+            } else if (parts[0].equals("transfer")) {
+                BigDecimal amount = new BigDecimal(params.get("amount"));
+                bank.transfer(Long.parseLong(params.get("fromAccountId")), Long.parseLong(params.get("toAccountId")),
+                        amount);
+                send(exchange, 200, "text/plain", "Successfully transferred " + money(amount)
+                        + " from account #" + params.get("fromAccountId") + " to account #" + params.get("toAccountId"));
+            } else {
+                send(exchange, 404, "text/plain", "Unknown service: " + path);
+            }
+        } catch (IllegalArgumentException e) {
+            send(exchange, 400, "text/plain", e.getMessage());
+        }
+    }
+
+    /**
+     * Get a request parameter, answering 400 (through IllegalArgumentException) when it is missing
+     */
+    private static String required(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalArgumentException("Missing parameter: " + name);
+        }
+        return value.trim();
+    }
+
+    private static AccountType accountType(String code) {
+        try {
+            return AccountType.fromCode(Integer.parseInt(code));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Unknown account type: " + code);
+        }
+    }
+
+    private static String customerXml(CustomerRecord customer) {
+        return "<customer><id>" + customer.id + "</id><firstName>" + escape(customer.firstName)
+                + "</firstName><lastName>" + escape(customer.lastName) + "</lastName></customer>";
+    }
+
+    private static String accountXml(AccountRecord account) {
+        return "<account><id>" + account.id + "</id><customerId>" + account.customerId + "</customerId><type>"
+                + account.type + "</type><balance>" + account.balance.toPlainString() + "</balance></account>";
+    }
+
+    // ------------------------------------------------------------------ HTTP plumbing
+
+    private CustomerRecord currentCustomer(HttpExchange exchange) {
+        String sessionId = sessionId(exchange);
+        Long customerId = sessionId == null ? null : sessions.get(sessionId);
+        return customerId == null ? null : bank.getCustomer(customerId);
+    }
+
+    private void startSession(HttpExchange exchange, CustomerRecord customer) {
+        String sessionId = UUID.randomUUID().toString().replace("-", "").toUpperCase();
+        sessions.put(sessionId, customer.id);
+        exchange.getResponseHeaders().add("Set-Cookie",
+                SESSION_COOKIE + "=" + sessionId + "; Path=/parabank; HttpOnly");
+    }
+
+    private static String sessionId(HttpExchange exchange) {
+        List<String> headers = exchange.getRequestHeaders().get("Cookie");
+        if (headers == null) {
+            return null;
+        }
+        for (String header : headers) {
+            for (String cookie : header.split(";")) {
+                String[] pair = cookie.trim().split("=", 2);
+                if (pair.length == 2 && pair[0].equals(SESSION_COOKIE)) {
+                    return pair[1];
+                }
+            }
+        }
+        return null;
+    }
+
+    private static void redirect(HttpExchange exchange, String location) throws IOException {
+        exchange.getResponseHeaders().add("Location", location);
+        exchange.sendResponseHeaders(302, -1);
+    }
+
+    private static void sendXml(HttpExchange exchange, String xml) throws IOException {
+        send(exchange, 200, "application/xml", xml);
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            in.transferTo(buffer);
+            return buffer.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            String[] keyValue = pair.split("=", 2);
+            params.put(decode(keyValue[0]), keyValue.length > 1 ? decode(keyValue[1]) : "");
+        }
+        return params;
+    }
+
+    private static String decode(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String money(BigDecimal amount) {
+        String formatted = new DecimalFormat("#,##0.00").format(amount.abs());
+        return (amount.signum() < 0 ? "-$" : "$") + formatted;
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
@@ -0,0 +1,406 @@
+package utils;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.openqa.selenium.TimeoutException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.zip.DataFormatException;
+
+/**
+ * AdaptiveTimeouts - Per-action wait timeouts learned from how long the same wait took before
+ *
+ * AdaptiveTimeouts.until("visible", timeout -> new WebDriverWait(driver, timeout).until(...));
+ *
+ * A wait is keyed by the page-object method that issued it (CallerResolver) and its kind, e.g.
+ * "BillPayPage.payBill clickable". Completed waits are recorded in microseconds per action and
+ * expired waits are counted per action; only completions become latency samples. At suite end
+ * this run's histograms are appended to adaptive.timeouts.history, which keeps the last
+ * adaptive.timeouts.history.runs runs per action (each shard of a run counts as one).
+ *
+ * Once an action has adaptive.timeouts.min.samples completions in that history, its timeout is
+ * p99.9 x adaptive.timeouts.factor, clamped to [adaptive.timeouts.min.ms, explicit.wait]: a
+ * hang on a page that normally answers in 300 ms fails after a few seconds, while a page that
+ * is normally slow keeps a long timeout. With adaptive.timeouts.retry=true an expired learned
+ * timeout is instead tried once more for the rest of explicit.wait. Actions without enough
+ * history, and every action when adaptive.timeouts.enabled=false, wait explicit.wait.
+ * adaptive.timeouts.override.ms, when set, is used for every wait, without retry.
+ *
+ * The suite-end report compares each action's p90 in this run with its history, flags those
+ * that moved by adaptive.timeouts.drift.ratio or more, and lists the actions whose waits expired.
+ */
+public class AdaptiveTimeouts {
+    private static final int SIGNIFICANT_DIGITS = 2;
+    private static final double PERCENTILE = 99.9;
+    private static final int DRIFT_MIN_SAMPLES = 5;
+
+    private static final Map<String, Histogram> run = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicLong> expired = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicLong> retried = new ConcurrentHashMap<>();
+    private static volatile Map<String, Summary> history;
+
+    /**
+     * Check if wait latencies are recorded and used for timeouts
+     */
+    public static boolean isEnabled() {
+        return ConfigReader.get().getBoolean("adaptive.timeouts.enabled");
+    }
+
+    /**
+     * Start timing a wait of the given kind for the calling page action
+     */
+    public static Wait start(String kind) {
+        String action = CallerResolver.currentAction() + " " + kind;
+        return new Wait(action, timeoutFor(action));
+    }
+
+    /**
+     * Run a wait within the calling page action's timeout; attempt gets the time it may take and
+     * throws TimeoutException when it runs out. With adaptive.timeouts.retry a learned timeout
+     * that expires is retried once for the rest of explicit.wait.
+     */
+    public static <T> T until(String kind, Function<Duration, T> attempt) {
+        Wait timing = start(kind);
+        while (true) {
+            try {
+                T value = attempt.apply(timing.getTimeout());
+                timing.completed();
+                return value;
+            } catch (TimeoutException e) {
+                if (!timing.expired()) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the longest timeout any wait can be given: explicit.wait, or the override when longer
+     */
+    public static Duration longestTimeout() {
+        Config config = ConfigReader.get();
+        long override = config.getLong("adaptive.timeouts.override.ms", 0);
+        Duration ceiling = config.getExplicitWait();
+        return override > ceiling.toMillis() ? Duration.ofMillis(override) : ceiling;
+    }
+
+    /**
+     * Get the timeout for an action: the override, the learned value, or explicit.wait
+     */
+    public static Duration timeoutFor(String action) {
+        Config config = ConfigReader.get();
+        long override = config.getLong("adaptive.timeouts.override.ms", 0);
+        if (override > 0) {
+            return Duration.ofMillis(override);
+        }
+        Duration ceiling = config.getExplicitWait();
+        if (!isEnabled()) {
+            return ceiling;
+        }
+        Summary summary = history().get(action);
+        if (summary == null || summary.count < config.getInt("adaptive.timeouts.min.samples")) {
+            return ceiling;
+        }
+        long learned = (long) Math.ceil(summary.p999Micros * config.getDouble("adaptive.timeouts.factor") / 1000);
+        long floor = config.getLong("adaptive.timeouts.min.ms");
+        return Duration.ofMillis(Math.min(ceiling.toMillis(), Math.max(floor, learned)));
+    }
+
+    /**
+     * Log the drift table, write it as CSV and append this run's latencies to the history
+     */
+    public static void reportSuite() {
+        Set<String> actions = new TreeSet<>(run.keySet());
+        actions.addAll(expired.keySet());
+        if (actions.isEmpty()) {
+            return;
+        }
+        Config config = ConfigReader.get();
+        double driftRatio = config.getDouble("adaptive.timeouts.drift.ratio");
+        List<String> drifting = new ArrayList<>();
+        List<String> expiring = new ArrayList<>();
+        List<String> rows = new ArrayList<>();
+        for (String action : actions) {
+            Histogram current = run.getOrDefault(action, new Histogram(SIGNIFICANT_DIGITS));
+            Summary past = history().get(action);
+            long runP90 = current.getValueAtPercentile(90);
+            String drift = "";
+            String flag = "";
+            if (past != null && past.count >= config.getInt("adaptive.timeouts.min.samples")
+                    && current.getTotalCount() >= DRIFT_MIN_SAMPLES && past.p90Micros > 0) {
+                double ratio = (double) runP90 / past.p90Micros;
+                drift = String.format(Locale.ROOT, "%.2f", ratio);
+                if (ratio >= driftRatio) {
+                    flag = "slower";
+                } else if (ratio <= 1 / driftRatio) {
+                    flag = "faster";
+                }
+                if (!flag.isEmpty()) {
+                    drifting.add(String.format(Locale.ROOT, "%s: p90 %s ms -> %s ms (x%s)", action,
+                            millis(past.p90Micros), millis(runP90), drift));
+                }
+            }
+            rows.add(String.join(",", action, String.valueOf(past == null ? 0 : past.count),
+                    past == null ? "" : millis(past.p90Micros), past == null ? "" : millis(past.p999Micros),
+                    String.valueOf(timeoutFor(action).toMillis()), String.valueOf(current.getTotalCount()),
+                    current.getTotalCount() == 0 ? "" : millis(runP90), String.valueOf(count(retried, action)), String.valueOf(count(expired, action)),
+                    drift, flag));
+            if (count(expired, action) > 0) {
+                expiring.add(String.format(Locale.ROOT, "%s: %d expired, %d completed, timeout %d ms", action,
+                        count(expired, action), current.getTotalCount(), timeoutFor(action).toMillis()));
+            }
+        }
+        if (drifting.isEmpty()) {
+            LoggerUtil.info("Wait latency: no action drifted by x{} or more from its history", driftRatio);
+        } else {
+            LoggerUtil.warn("Wait latency drifted from history for {} action(s):\n  {}",
+                    drifting.size(), String.join("\n  ", drifting));
+        }
+        if (!expiring.isEmpty()) {
+            LoggerUtil.warn("Waits expired for {} action(s):\n  {}", expiring.size(), String.join("\n  ", expiring));
+        }
+        writeReport(rows);
+        persist();
+    }
+
+    /**
+     * Get the history summaries, loading the file on first use
+     */
+    private static Map<String, Summary> history() {
+        if (history == null) {
+            synchronized (AdaptiveTimeouts.class) {
+                if (history == null) {
+                    Map<String, Summary> summaries = new ConcurrentHashMap<>();
+                    for (Map.Entry<String, List<String[]>> action : readHistory(historyPath()).entrySet()) {
+                        Histogram merged = new Histogram(SIGNIFICANT_DIGITS);
+                        for (String[] line : action.getValue()) {
+                            merged.add(decode(line[2]));
+                        }
+                        summaries.put(action.getKey(), new Summary(merged));
+                    }
+                    LoggerUtil.debug("Loaded wait latency history for {} actions", summaries.size());
+                    history = summaries;
+                }
+            }
+        }
+        return history;
+    }
+
+    /**
+     * Append this run to the history under a file lock, so shards finishing together do not
+     * overwrite each other, and keep only the newest runs per action
+     */
+    private static void persist() {
+        Path file = historyPath();
+        int keep = ConfigReader.get().getInt("adaptive.timeouts.history.runs");
+        String runId = UniqueDataGenerator.getRunId()
+                + (System.getProperty("shard.index") != null ? "-" + System.getProperty("shard.index") : "");
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                // Released when the channel closes
+                channel.lock();
+                Map<String, List<String[]>> lines = readHistory(file);
+                for (Map.Entry<String, Histogram> entry : run.entrySet()) {
+                    List<String[]> runs = lines.computeIfAbsent(entry.getKey(), k -> new ArrayList<>());
+                    runs.add(new String[] {entry.getKey(), runId, encode(entry.getValue())});
+                    while (runs.size() > keep) {
+                        runs.remove(0);
+                    }
+                }
+                Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+                try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    out.write("# action\trun\tcompressed HdrHistogram of wait latency in microseconds, base64\n");
+                    for (List<String[]> runs : lines.values()) {
+                        for (String[] line : runs) {
+                            out.write(String.join("\t", line));
+                            out.write('\n');
+                        }
+                    }
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            LoggerUtil.info("Wait latency history updated: {}", file);
+        } catch (IOException e) {
+            LoggerUtil.error("Failed to update wait latency history: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Read the history file as action -> lines (action, run, histogram), oldest run first
+     */
+    private static Map<String, List<String[]>> readHistory(Path file) {
+        Map<String, List<String[]>> lines = new LinkedHashMap<>();
+        if (!Files.isRegularFile(file)) {
+            return lines;
+        }
+        try {
+            for (String text : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String[] line = text.split("\t");
+                if (text.startsWith("#") || line.length != 3) {
+                    continue;
+                }
+                lines.computeIfAbsent(line[0], k -> new ArrayList<>()).add(line);
+            }
+        } catch (IOException e) {
+            LoggerUtil.warn("Ignoring unreadable wait latency history: {}", file);
+        }
+        return lines;
+    }
+
+    private static void writeReport(List<String> rows) {
+        String file = ConfigReader.getProperty("adaptive.timeouts.report");
+        String shard = System.getProperty("shard.index");
+        if (shard != null && file.endsWith(".csv")) {
+            file = file.substring(0, file.length() - 4) + "-shard-" + shard + ".csv";
+        }
+        Path report = Paths.get(file);
+        try {
+            if (report.getParent() != null) {
+                Files.createDirectories(report.getParent());
+            }
+            try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(report, StandardCharsets.UTF_8))) {
+                out.println("action,history_samples,history_p90_ms,history_p999_ms,timeout_ms,"
+                        + "run_samples,run_p90_ms,run_retried,run_expired,drift,flag");
+                rows.forEach(out::println);
+            }
+            LoggerUtil.info("Adaptive timeout report written to: {}", report);
+        } catch (IOException e) {
+            LoggerUtil.error("Failed to write adaptive timeout report: {}", e.getMessage());
+        }
+    }
+
+    private static Path historyPath() {
+        return Paths.get(ConfigReader.getProperty("adaptive.timeouts.history"));
+    }
+
+    private static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        byte[] bytes = new byte[length];
+        buffer.flip();
+        buffer.get(bytes);
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    private static Histogram decode(String base64) {
+        try {
+            return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(Base64.getDecoder().decode(base64)), 0);
+        } catch (DataFormatException | IllegalArgumentException e) {
+            LoggerUtil.warn("Ignoring corrupt wait latency history entry");
+            return new Histogram(SIGNIFICANT_DIGITS);
+        }
+    }
+
+    private static long count(Map<String, AtomicLong> counts, String action) {
+        AtomicLong count = counts.get(action);
+        return count == null ? 0 : count.get();
+    }
+
+    private static String millis(long micros) {
+        return String.format(Locale.ROOT, "%.1f", micros / 1000.0);
+    }
+
+    /**
+     * The parts of an action's history that timeouts and drift are computed from
+     */
+    private static final class Summary {
+        private final long count;
+        private final long p90Micros;
+        private final long p999Micros;
+
+        private Summary(Histogram histogram) {
+            this.count = histogram.getTotalCount();
+            this.p90Micros = histogram.getValueAtPercentile(90);
+            this.p999Micros = histogram.getValueAtPercentile(PERCENTILE);
+        }
+    }
+
+    /**
+     * One wait in progress: its action, its current timeout, and when it started
+     */
+    public static class Wait {
+        private final String action;
+        private final long start = System.nanoTime();
+        private Duration timeout;
+        private boolean retrying;
+
+        private Wait(String action, Duration timeout) {
+            this.action = action;
+            this.timeout = timeout;
+        }
+
+        public String getAction() {
+            return action;
+        }
+
+        /**
+         * Get the time the current attempt may take
+         */
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        /**
+         * Record the wait's latency, retries included, as a sample of its action
+         */
+        public void completed() {
+            if (isEnabled()) {
+                long micros = Math.max(1, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                run.computeIfAbsent(action, k -> new ConcurrentHistogram(SIGNIFICANT_DIGITS)).recordValue(micros);
+            }
+        }
+
+        /**
+         * Count a wait that ran out of time; expiries are not latency samples. Returns true when
+         * adaptive.timeouts.retry allows one more try, with getTimeout() now the rest of explicit.wait
+         */
+        public boolean expired() {
+            Config config = ConfigReader.get();
+            Duration ceiling = config.getExplicitWait();
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            boolean learned = config.getLong("adaptive.timeouts.override.ms", 0) <= 0
+                    && timeout.compareTo(ceiling) < 0;
+            if (learned && !retrying && config.getBoolean("adaptive.timeouts.retry")
+                    && elapsed.compareTo(ceiling) < 0) {
+                LoggerUtil.warn("Wait {} ran past its learned timeout of {} ms, retrying up to explicit.wait",
+                        action, timeout.toMillis());
+                retrying = true;
+                timeout = ceiling.minus(elapsed);
+                retried.computeIfAbsent(action, k -> new AtomicLong()).incrementAndGet();
+                return true;
+            }
+            expired.computeIfAbsent(action, k -> new AtomicLong()).incrementAndGet();
+            if (learned) {
+                LoggerUtil.warn("Wait {} gave up after its learned timeout of {} ms", action, timeout.toMillis());
+            }
+            return false;
+        }
+    }
+}
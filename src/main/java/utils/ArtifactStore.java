@@ -0,0 +1,435 @@
+package utils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * ArtifactStore - Content-addressed, deduplicated store for screenshots
+ *
+ * Layout under the store root (screenshot.dir):
+ *   objects/<sha256>.png  - each distinct image stored once
+ *   index.csv             - one line per capture: timestamp,test,sha256,dhash,object
+ *
+ * Identical images are stored once and referenced by hash. With screenshot.dedupe.perceptual
+ * a 64-bit difference hash collapses near-duplicates (within screenshot.dedupe.max.distance
+ * bits): the new object is hard-linked to the earlier image, so its path stays valid at no
+ * extra disk cost. Objects older than screenshot.store.max.age.days, then the least recently
+ * referenced ones beyond screenshot.store.max.mb, are evicted when a store is opened and on
+ * flush, and the index is compacted to match; 0 turns either limit off.
+ *
+ * Captures share a read lock and eviction takes the write lock, so an object is never deleted
+ * between a capture finding it (as a duplicate or a link target) and recording it in the index.
+ * Shards in other JVMs share the same directory, so the locks are mirrored on store.lock: while
+ * any capture runs this JVM holds a shared file lock, and eviction holds an exclusive one.
+ */
+public class ArtifactStore {
+    private static final String INDEX_HEADER = "timestamp,test,sha256,dhash,object";
+    private static final String NO_HASH = "-";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final Map<Path, ArtifactStore> stores = new ConcurrentHashMap<>();
+
+    private final Path root;
+    private final Path objects;
+    private final Path index;
+    private final boolean perceptual;
+    private final int maxDistance;
+    private final long maxBytes;
+    private final Duration maxAge;
+    // dHash of each stored image -> object file name, for near-duplicate lookups
+    private final Map<Long, String> perceptualHashes = new LinkedHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Path lockFile;
+    // Shared file lock held for this JVM's running captures, and how many there are
+    private FileChannel sharedChannel;
+    private int sharers;
+
+    private ArtifactStore(Path root) {
+        this.root = root;
+        this.objects = root.resolve("objects");
+        this.index = root.resolve("index.csv");
+        this.lockFile = root.resolve("store.lock");
+        Config config = ConfigReader.get();
+        this.perceptual = config.getBoolean("screenshot.dedupe.perceptual");
+        this.maxDistance = config.getInt("screenshot.dedupe.max.distance");
+        this.maxBytes = config.getLong("screenshot.store.max.mb") * 1024 * 1024;
+        this.maxAge = Duration.ofDays(config.getLong("screenshot.store.max.age.days"));
+        try {
+            Files.createDirectories(objects);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create artifact store at " + root, e);
+        }
+        evict();
+        loadPerceptualHashes();
+    }
+
+    /**
+     * Get the store rooted at a directory, opening it on first use
+     */
+    public static ArtifactStore at(Path root) {
+        return stores.computeIfAbsent(root.toAbsolutePath().normalize(), ArtifactStore::new);
+    }
+
+    /**
+     * Apply the eviction policy to every store opened in this JVM
+     */
+    public static void evictOpenStores() {
+        for (ArtifactStore store : stores.values()) {
+            store.evict();
+        }
+    }
+
+    /**
+     * Get the SHA-256 of some content as lowercase hex
+     */
+    public static String sha256(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            char[] hex = new char[digest.length * 2];
+            for (int i = 0; i < digest.length; i++) {
+                hex[i * 2] = HEX[(digest[i] >> 4) & 0xf];
+                hex[i * 2 + 1] = HEX[digest[i] & 0xf];
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Get the path a PNG with the given hash is stored at
+     */
+    public Path objectPath(String sha256) {
+        return objects.resolve(sha256 + ".png");
+    }
+
+    /**
+     * Store a PNG under its hash (computed by the caller) and record it in the index for a test
+     */
+    public void store(byte[] png, String sha256, String testName) throws IOException {
+        lock.readLock().lock();
+        try {
+            acquireShared();
+        } catch (IOException e) {
+            lock.readLock().unlock();
+            throw e;
+        }
+        try {
+            Path object = objectPath(sha256);
+            if (Files.exists(object)) {
+                // Exact duplicate: refresh its age so eviction keeps images that keep recurring
+                Files.setLastModifiedTime(object, FileTime.from(Instant.now()));
+                appendIndex(testName, sha256, NO_HASH, object);
+                LoggerUtil.info("Screenshot for {} matches stored image {}", testName, object.getFileName());
+                return;
+            }
+
+            String dhash = NO_HASH;
+            if (perceptual) {
+                Long hash = differenceHash(png);
+                if (hash != null) {
+                    dhash = Long.toHexString(hash);
+                    Path similar = findSimilar(hash);
+                    if (similar != null && link(object, similar)) {
+                        appendIndex(testName, sha256, dhash, similar);
+                        LoggerUtil.info("Screenshot for {} is a near-duplicate of {}", testName, similar.getFileName());
+                        return;
+                    }
+                }
+            }
+
+            write(png, object);
+            if (!NO_HASH.equals(dhash)) {
+                synchronized (perceptualHashes) {
+                    perceptualHashes.put(Long.parseUnsignedLong(dhash, 16), object.getFileName().toString());
+                }
+            }
+            appendIndex(testName, sha256, dhash, object);
+            LoggerUtil.info("Screenshot saved successfully: {}", object);
+        } finally {
+            releaseShared();
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Drop objects past the age limit, then least recently referenced ones past the size limit
+     */
+    public void evict() {
+        lock.writeLock().lock();
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // Waits for captures in other JVMs; released when the channel closes
+            channel.lock();
+            evictLocked();
+        } catch (IOException e) {
+            LoggerUtil.error("Failed to lock artifact store {}: {}", root, e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Take the shared file lock for a capture; the first of this JVM's captures acquires it
+     */
+    private void acquireShared() throws IOException {
+        synchronized (lockFile) {
+            if (sharers == 0) {
+                // A shared lock needs a readable channel
+                FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE);
+                try {
+                    channel.lock(0, Long.MAX_VALUE, true);
+                } catch (IOException | RuntimeException e) {
+                    channel.close();
+                    throw e;
+                }
+                sharedChannel = channel;
+            }
+            sharers++;
+        }
+    }
+
+    /**
+     * Give up a capture's share of the file lock; the last one releases it
+     */
+    private void releaseShared() {
+        synchronized (lockFile) {
+            if (--sharers == 0) {
+                try {
+                    sharedChannel.close();
+                } catch (IOException e) {
+                    LoggerUtil.warn("Failed to release artifact store lock {}", lockFile);
+                }
+                sharedChannel = null;
+            }
+        }
+    }
+
+    private void evictLocked() {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(objects)) {
+            files = listing.filter(path -> path.toString().endsWith(".png")).collect(Collectors.toList());
+        } catch (IOException e) {
+            LoggerUtil.error("Failed to list artifact store: {}", e.getMessage());
+            return;
+        }
+
+        Map<Path, BasicFileAttributes> attributes = new LinkedHashMap<>();
+        for (Path file : files) {
+            try {
+                attributes.put(file, Files.readAttributes(file, BasicFileAttributes.class));
+            } catch (IOException e) {
+                // Removed concurrently
+            }
+        }
+        List<Path> byAge = new ArrayList<>(attributes.keySet());
+        byAge.sort(Comparator.comparing(path -> attributes.get(path).lastModifiedTime()));
+
+        // Hard-linked near-duplicates share storage, so count each file key once
+        Set<Object> counted = new HashSet<>();
+        long total = 0;
+        for (Path file : byAge) {
+            Object key = attributes.get(file).fileKey();
+            if (key == null || counted.add(key)) {
+                total += attributes.get(file).size();
+            }
+        }
+
+        Instant cutoff = Instant.now().minus(maxAge);
+        int evicted = 0;
+        for (Path file : byAge) {
+            BasicFileAttributes attrs = attributes.get(file);
+            boolean expired = !maxAge.isZero() && attrs.lastModifiedTime().toInstant().isBefore(cutoff);
+            if (!expired && (maxBytes == 0 || total <= maxBytes)) {
+                break;
+            }
+            try {
+                int links = linkCount(file);
+                Files.deleteIfExists(file);
+                evicted++;
+                if (links <= 1) {
+                    total -= attrs.size();
+                }
+            } catch (IOException e) {
+                LoggerUtil.warn("Failed to evict {}", file);
+            }
+        }
+        if (evicted > 0) {
+            LoggerUtil.info("Evicted {} screenshots from {}", evicted, root);
+            compactIndex();
+        }
+    }
+
+    private Path findSimilar(long hash) {
+        synchronized (perceptualHashes) {
+            for (Map.Entry<Long, String> known : perceptualHashes.entrySet()) {
+                if (Long.bitCount(known.getKey() ^ hash) <= maxDistance) {
+                    Path candidate = objects.resolve(known.getValue());
+                    if (Files.exists(candidate)) {
+                        return candidate;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean link(Path object, Path existing) {
+        try {
+            Files.createLink(object, existing);
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            return Files.exists(object);
+        }
+    }
+
+    private void write(byte[] png, Path object) throws IOException {
+        Path temp = object.resolveSibling(object.getFileName() + "." + Thread.currentThread().getId() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(png);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, object, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private synchronized void appendIndex(String testName, String sha256, String dhash, Path object)
+            throws IOException {
+        boolean created = !Files.exists(index);
+        try (BufferedWriter writer = Files.newBufferedWriter(index, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            if (created) {
+                writer.write(INDEX_HEADER);
+                writer.newLine();
+            }
+            writer.write(Instant.now() + "," + testName.replace(',', '_') + "," + sha256 + "," + dhash + ","
+                    + root.relativize(object.toAbsolutePath().normalize()));
+            writer.newLine();
+        }
+    }
+
+    /**
+     * Rewrite the index without entries whose object is gone
+     */
+    private void compactIndex() {
+        if (!Files.exists(index)) {
+            return;
+        }
+        try {
+            List<String> kept = new ArrayList<>();
+            for (String line : Files.readAllLines(index, StandardCharsets.UTF_8)) {
+                String[] fields = line.split(",");
+                if (line.equals(INDEX_HEADER) || (fields.length == 5 && Files.exists(root.resolve(fields[4])))) {
+                    kept.add(line);
+                }
+            }
+            Path temp = index.resolveSibling("index.csv.tmp");
+            Files.write(temp, kept, StandardCharsets.UTF_8);
+            Files.move(temp, index, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            LoggerUtil.error("Failed to compact screenshot index: {}", e.getMessage());
+        }
+    }
+
+    private void loadPerceptualHashes() {
+        if (!perceptual || !Files.exists(index)) {
+            return;
+        }
+        try {
+            for (String line : Files.readAllLines(index, StandardCharsets.UTF_8)) {
+                String[] fields = line.split(",");
+                if (fields.length == 5 && !line.equals(INDEX_HEADER) && !NO_HASH.equals(fields[3])) {
+                    perceptualHashes.put(Long.parseUnsignedLong(fields[3], 16),
+                            root.resolve(fields[4]).getFileName().toString());
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            LoggerUtil.warn("Failed to load perceptual hashes from {}", index);
+        }
+    }
+
+    /**
+     * 64-bit difference hash: brightness gradients across a 9x8 grid of block averages
+     */
+    private static Long differenceHash(byte[] png) {
+        BufferedImage image;
+        try {
+            image = ImageIO.read(new ByteArrayInputStream(png));
+        } catch (IOException e) {
+            return null;
+        }
+        if (image == null) {
+            return null;
+        }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double[][] grid = new double[8][9];
+        for (int row = 0; row < 8; row++) {
+            int y0 = row * height / 8;
+            int y1 = Math.max(y0 + 1, (row + 1) * height / 8);
+            for (int col = 0; col < 9; col++) {
+                int x0 = col * width / 9;
+                int x1 = Math.max(x0 + 1, (col + 1) * width / 9);
+                // Sample a sparse lattice of each block; plenty for a 64-bit hash
+                int stepX = Math.max(1, (x1 - x0) / 16);
+                int stepY = Math.max(1, (y1 - y0) / 16);
+                double sum = 0;
+                int samples = 0;
+                for (int y = y0; y < y1 && y < height; y += stepY) {
+                    for (int x = x0; x < x1 && x < width; x += stepX) {
+                        int rgb = image.getRGB(x, y);
+                        sum += 0.299 * ((rgb >> 16) & 0xff) + 0.587 * ((rgb >> 8) & 0xff) + 0.114 * (rgb & 0xff);
+                        samples++;
+                    }
+                }
+                grid[row][col] = samples == 0 ? 0 : sum / samples;
+            }
+        }
+        long hash = 0;
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                hash = (hash << 1) | (grid[row][col] < grid[row][col + 1] ? 1 : 0);
+            }
+        }
+        return hash;
+    }
+
+    private static int linkCount(Path file) {
+        try {
+            Object count = Files.getAttribute(file, "unix:nlink");
+            return count instanceof Integer ? (Integer) count : 1;
+        } catch (IOException | UnsupportedOperationException | IllegalArgumentException e) {
+            return 1;
+        }
+    }
+}
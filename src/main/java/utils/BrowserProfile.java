@@ -0,0 +1,178 @@
+package utils;
+
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.logging.LogType;
+import org.openqa.selenium.logging.LoggingPreferences;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * BrowserProfile - Named browser launch profiles selected with browser.profile
+ *
+ * default       - headed, maximized, full rendering (previous behaviour)
+ * headless      - headless with a fixed viewport, full rendering
+ * headless-lean - headless with a fixed viewport, no images, web fonts, extensions or GPU,
+ *                 and the eager page-load strategy; for container farms where rendering
+ *                 work we never assert on only costs CPU and memory
+ *
+ * browser.headless, browser.window.size and browser.page.load.strategy override the profile
+ */
+public class BrowserProfile {
+    private static final String DEFAULT_WINDOW_SIZE = "1920,1080";
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 "
+            + "(KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36";
+
+    private final String name;
+    private final boolean headless;
+    private final String windowSize;
+    private final boolean lean;
+    private final PageLoadStrategy pageLoadStrategy;
+
+    private BrowserProfile(String name, boolean headless, String windowSize, boolean lean,
+                           PageLoadStrategy pageLoadStrategy) {
+        this.name = name;
+        this.headless = headless;
+        this.windowSize = windowSize;
+        this.lean = lean;
+        this.pageLoadStrategy = pageLoadStrategy;
+    }
+
+    /**
+     * Build the profile named by browser.profile, applying any per-setting overrides
+     */
+    public static BrowserProfile fromConfig() {
+        String name = ConfigReader.getProperty("browser.profile");
+        boolean headless;
+        boolean lean;
+        PageLoadStrategy strategy;
+        switch (name) {
+            case "default":
+                headless = false;
+                lean = false;
+                strategy = PageLoadStrategy.NORMAL;
+                break;
+            case "headless":
+                headless = true;
+                lean = false;
+                strategy = PageLoadStrategy.NORMAL;
+                break;
+            case "headless-lean":
+                headless = true;
+                lean = true;
+                strategy = PageLoadStrategy.EAGER;
+                break;
+            default:
+                throw new RuntimeException("Unknown browser profile: " + name
+                        + " (expected default, headless or headless-lean)");
+        }
+
+        headless = ConfigReader.get().getBoolean("browser.headless", headless);
+        String windowSize = ConfigReader.getProperty("browser.window.size", headless ? DEFAULT_WINDOW_SIZE : "");
+        String strategyName = ConfigReader.getProperty("browser.page.load.strategy", strategy.toString());
+        strategy = PageLoadStrategy.fromString(strategyName.trim().toLowerCase());
+        if (strategy == null) {
+            throw new RuntimeException("Unknown page load strategy: " + strategyName
+                    + " (expected normal, eager or none)");
+        }
+        return new BrowserProfile(name, headless, windowSize.trim().isEmpty() ? null : windowSize.trim(), lean,
+                strategy);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Check if the window should be maximized rather than sized to a fixed viewport
+     */
+    public boolean shouldMaximize() {
+        return windowSize == null && !headless;
+    }
+
+    /**
+     * Get Chrome options for this profile
+     */
+    public ChromeOptions chromeOptions() {
+        ChromeOptions options = new ChromeOptions();
+        applyChromium(options);
+        options.addArguments("--remote-allow-origins=*");
+        options.addArguments("user-agent=" + USER_AGENT);
+        options.setExperimentalOption("excludeSwitches", new String[]{"enable-automation"});
+        options.setExperimentalOption("useAutomationExtension", false);
+        return options;
+    }
+
+    /**
+     * Get Edge options for this profile
+     */
+    public EdgeOptions edgeOptions() {
+        EdgeOptions options = new EdgeOptions();
+        applyChromium(options);
+        return options;
+    }
+
+    /**
+     * Get Firefox options for this profile
+     */
+    public FirefoxOptions firefoxOptions() {
+        FirefoxOptions options = new FirefoxOptions();
+        options.setPageLoadStrategy(pageLoadStrategy);
+        options.addPreference("dom.webnotifications.enabled", false);
+        if (headless) {
+            options.addArguments("-headless");
+        }
+        if (windowSize != null) {
+            String[] size = windowSize.split(",");
+            options.addArguments("--width=" + size[0].trim(), "--height=" + size[1].trim());
+        }
+        if (lean) {
+            options.addPreference("permissions.default.image", 2);
+            options.addPreference("gfx.downloadable_fonts.enabled", false);
+            options.addPreference("extensions.enabledScopes", 0);
+            options.addPreference("layers.acceleration.disabled", true);
+            options.addPreference("media.autoplay.default", 5);
+        }
+        return options;
+    }
+
+    /**
+     * Arguments shared by Chrome and Edge
+     */
+    private void applyChromium(ChromiumOptions<?> options) {
+        options.setPageLoadStrategy(pageLoadStrategy);
+        options.addArguments("--disable-notifications");
+        options.addArguments("--disable-blink-features=AutomationControlled");
+        options.addArguments("--disable-dev-shm-usage");
+        options.addArguments("--no-sandbox");
+        if (headless) {
+            options.addArguments("--headless=new");
+        }
+        if (windowSize != null) {
+            options.addArguments("--window-size=" + windowSize);
+        } else {
+            options.addArguments("--start-maximized");
+        }
+        if (FailureBundle.isEnabled()) {
+            // Keep the browser console readable for failure bundles
+            LoggingPreferences logging = new LoggingPreferences();
+            logging.enable(LogType.BROWSER, Level.ALL);
+            options.setCapability("goog:loggingPrefs", logging);
+        }
+        if (lean) {
+            options.addArguments("--disable-extensions");
+            options.addArguments("--disable-gpu");
+            options.addArguments("--disable-remote-fonts");
+            options.addArguments("--blink-settings=imagesEnabled=false");
+            options.addArguments("--mute-audio");
+            Map<String, Object> prefs = new HashMap<>();
+            prefs.put("profile.managed_default_content_settings.images", 2);
+            options.setExperimentalOption("prefs", prefs);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package utils;
+
+import java.util.Optional;
+
+/**
+ * CallerResolver - Names the page-object or test method that caused the current WebDriver call
+ * Walks the stack lazily and returns the first frame outside Selenium, the JDK, the framework
+ * plumbing (utils, listeners, BasePage) and generated proxies, e.g. "BillPayPage.payBill".
+ */
+public class CallerResolver {
+    private static final StackWalker WALKER = StackWalker.getInstance();
+    private static final String UNKNOWN = "unknown";
+    private static final String[] SKIPPED_PREFIXES = {
+            "java.", "javax.", "jdk.", "sun.", "com.sun.", "net.bytebuddy.", "org.openqa.", "org.testng.",
+            "utils.", "listeners.", "base.BasePage"
+    };
+
+    /**
+     * Get the calling action as SimpleClassName.method, or "unknown"
+     */
+    public static String currentAction() {
+        Optional<String> action = WALKER.walk(frames -> frames
+                .filter(frame -> !isSkipped(frame.getClassName()))
+                .findFirst()
+                .map(frame -> simpleName(frame.getClassName()) + "." + frame.getMethodName()));
+        return action.orElse(UNKNOWN);
+    }
+
+    private static boolean isSkipped(String className) {
+        if (className.contains("$Proxy") || className.contains("$$Lambda") || className.contains("$ByteBuddy$")) {
+            return true;
+        }
+        for (String prefix : SKIPPED_PREFIXES) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String simpleName(String className) {
+        String name = className.substring(className.lastIndexOf('.') + 1);
+        int nested = name.indexOf('$');
+        return nested > 0 ? name.substring(0, nested) : name;
+    }
+}
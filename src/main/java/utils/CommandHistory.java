@@ -0,0 +1,109 @@
+package utils;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * CommandHistory - The last few WebDriver commands issued on each thread
+ * A bounded ring buffer (failure.bundle.commands entries) fed by listeners.CommandTimingListener,
+ * cleared at the start of every test, so a failure bundle can show what led up to the failure.
+ */
+public class CommandHistory {
+    private static final int MAX_ARGUMENT_LENGTH = 120;
+    private static final int CAPACITY = ConfigReader.get().getInt("failure.bundle.commands");
+    private static final ThreadLocal<Deque<Entry>> recent = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * Check if command history is kept
+     */
+    public static boolean isEnabled() {
+        return CAPACITY > 0 && FailureBundle.isEnabled();
+    }
+
+    /**
+     * Record one finished command; error is null when it succeeded
+     */
+    public static void record(String action, String command, Object[] args, long nanos, Throwable error) {
+        Deque<Entry> entries = recent.get();
+        if (entries.size() >= CAPACITY) {
+            entries.pollFirst();
+        }
+        entries.addLast(new Entry(Instant.now(), action, command, describe(args), nanos / 1_000_000,
+                error == null ? null : error.getClass().getSimpleName() + ": " + firstLine(error.getMessage())));
+    }
+
+    /**
+     * Get the current thread's recent commands, oldest first
+     */
+    public static List<Entry> snapshot() {
+        return new ArrayList<>(recent.get());
+    }
+
+    /**
+     * Forget the current thread's commands, e.g. when a new test starts
+     */
+    public static void clear() {
+        recent.get().clear();
+    }
+
+    private static String describe(Object[] args) {
+        if (args == null || args.length == 0) {
+            return "";
+        }
+        StringBuilder text = new StringBuilder();
+        for (Object arg : args) {
+            if (text.length() > 0) {
+                text.append(", ");
+            }
+            if (arg instanceof CharSequence[]) {
+                // Typed keys can be passwords; masked like cookie values
+                text.append(FailureBundle.mask(String.join("", (CharSequence[]) arg)));
+            } else if (arg instanceof Object[]) {
+                text.append('[').append(((Object[]) arg).length).append(" args]");
+            } else {
+                text.append(arg);
+            }
+        }
+        String description = text.toString().replace('\n', ' ');
+        return description.length() > MAX_ARGUMENT_LENGTH
+                ? description.substring(0, MAX_ARGUMENT_LENGTH) + "..." : description;
+    }
+
+    private static String firstLine(String message) {
+        if (message == null) {
+            return "";
+        }
+        int newline = message.indexOf('\n');
+        return newline < 0 ? message : message.substring(0, newline);
+    }
+
+    /**
+     * One recorded command
+     */
+    public static class Entry {
+        private final Instant time;
+        private final String action;
+        private final String command;
+        private final String arguments;
+        private final long millis;
+        private final String error;
+
+        Entry(Instant time, String action, String command, String arguments, long millis, String error) {
+            this.time = time;
+            this.action = action;
+            this.command = command;
+            this.arguments = arguments;
+            this.millis = millis;
+            this.error = error;
+        }
+
+        @Override
+        public String toString() {
+            return time + " " + action + " " + command + "(" + arguments + ") " + millis + " ms"
+                    + (error == null ? "" : " FAILED " + error);
+        }
+    }
+}
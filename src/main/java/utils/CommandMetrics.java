@@ -0,0 +1,153 @@
+package utils;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CommandMetrics - WebDriver command latency, keyed by calling action and command
+ * Samples are recorded in microseconds into HdrHistograms: one per-thread set for the running
+ * test (logged as a summary when the test ends) and one shared set for the whole run (logged
+ * and written to command.metrics.report when the suite ends).
+ *
+ * Fed by listeners.CommandTimingListener when command.metrics.enabled=true.
+ */
+public class CommandMetrics {
+    private static final int SIGNIFICANT_DIGITS = 2;
+    private static final int TOP_ACTIONS = 5;
+
+    private static final Map<String, Histogram> suite = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Map<String, Histogram>> currentTest = ThreadLocal.withInitial(HashMap::new);
+
+    /**
+     * Check if command timing is enabled
+     */
+    public static boolean isEnabled() {
+        return ConfigReader.get().isCommandMetricsEnabled();
+    }
+
+    /**
+     * Record one command of the given action
+     */
+    public static void record(String action, String command, long nanos) {
+        long micros = Math.max(1, nanos / 1000);
+        String key = action + " " + command;
+        suite.computeIfAbsent(key, k -> new ConcurrentHistogram(SIGNIFICANT_DIGITS)).recordValue(micros);
+        currentTest.get().computeIfAbsent(key, k -> new Histogram(SIGNIFICANT_DIGITS)).recordValue(micros);
+    }
+
+    /**
+     * Log the current thread's per-test summary and start a fresh one
+     */
+    public static void finishTest(String testName) {
+        Map<String, Histogram> samples = currentTest.get();
+        currentTest.remove();
+        if (samples.isEmpty()) {
+            return;
+        }
+
+        // Roll commands up to their action for the headline, slowest first
+        Map<String, long[]> byAction = new HashMap<>();
+        long count = 0;
+        long totalMicros = 0;
+        for (Map.Entry<String, Histogram> entry : samples.entrySet()) {
+            Histogram histogram = entry.getValue();
+            long sum = total(histogram);
+            long[] action = byAction.computeIfAbsent(entry.getKey().substring(0, entry.getKey().indexOf(' ')),
+                    k -> new long[2]);
+            action[0] += histogram.getTotalCount();
+            action[1] += sum;
+            count += histogram.getTotalCount();
+            totalMicros += sum;
+        }
+        List<Map.Entry<String, long[]>> actions = new ArrayList<>(byAction.entrySet());
+        actions.sort((a, b) -> Long.compare(b.getValue()[1], a.getValue()[1]));
+
+        StringBuilder line = new StringBuilder("Command latency for ").append(testName).append(": ")
+                .append(count).append(" commands, ").append(millis(totalMicros)).append(" ms; slowest actions:");
+        for (int i = 0; i < Math.min(TOP_ACTIONS, actions.size()); i++) {
+            Map.Entry<String, long[]> action = actions.get(i);
+            line.append(' ').append(action.getKey()).append(' ').append(millis(action.getValue()[1]))
+                    .append(" ms (").append(action.getValue()[0]).append(')');
+            if (i < Math.min(TOP_ACTIONS, actions.size()) - 1) {
+                line.append(',');
+            }
+        }
+        LoggerUtil.info(line.toString());
+    }
+
+    /**
+     * Log the run-wide table and write it as CSV; per-JVM, so shards write their own file
+     */
+    public static void reportSuite() {
+        if (suite.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<String, Histogram>> rows = new ArrayList<>(suite.entrySet());
+        rows.sort((a, b) -> Long.compare(total(b.getValue()), total(a.getValue())));
+
+        StringBuilder table = new StringBuilder("WebDriver command latency (ms) by action, slowest first:");
+        table.append(String.format("%n%-50s %-22s %7s %10s %8s %8s %8s %8s",
+                "action", "command", "count", "total", "p50", "p90", "p99", "max"));
+        for (Map.Entry<String, Histogram> row : rows) {
+            String[] key = row.getKey().split(" ", 2);
+            Histogram h = row.getValue();
+            table.append(String.format("%n%-50s %-22s %7d %10s %8s %8s %8s %8s", key[0], key[1],
+                    h.getTotalCount(), millis(total(h)), millis(h.getValueAtPercentile(50)),
+                    millis(h.getValueAtPercentile(90)), millis(h.getValueAtPercentile(99)), millis(h.getMaxValue())));
+        }
+        LoggerUtil.info(table.toString());
+
+        Path report = reportPath();
+        try {
+            if (report.getParent() != null) {
+                Files.createDirectories(report.getParent());
+            }
+            try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(report, StandardCharsets.UTF_8))) {
+                out.println("action,command,count,total_ms,p50_ms,p90_ms,p99_ms,max_ms");
+                for (Map.Entry<String, Histogram> row : rows) {
+                    String[] key = row.getKey().split(" ", 2);
+                    Histogram h = row.getValue();
+                    out.println(key[0] + "," + key[1] + "," + h.getTotalCount() + "," + millis(total(h)) + ","
+                            + millis(h.getValueAtPercentile(50)) + "," + millis(h.getValueAtPercentile(90)) + ","
+                            + millis(h.getValueAtPercentile(99)) + "," + millis(h.getMaxValue()));
+                }
+            }
+            LoggerUtil.info("Command latency report written to: {}", report);
+        } catch (IOException e) {
+            LoggerUtil.error("Failed to write command latency report: {}", e.getMessage());
+        }
+    }
+
+    private static Path reportPath() {
+        String file = ConfigReader.getProperty("command.metrics.report");
+        String shard = System.getProperty("shard.index");
+        if (shard != null && file.endsWith(".csv")) {
+            file = file.substring(0, file.length() - 4) + "-shard-" + shard + ".csv";
+        }
+        return Paths.get(file);
+    }
+
+    /**
+     * Approximate sum of all samples, from the histogram's mean
+     */
+    private static long total(Histogram histogram) {
+        return Math.round(histogram.getMean() * histogram.getTotalCount());
+    }
+
+    private static String millis(long micros) {
+        return String.format(Locale.ROOT, "%.1f", micros / 1000.0);
+    }
+}
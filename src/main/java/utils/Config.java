@@ -0,0 +1,424 @@
+package utils;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Config - Immutable, validated snapshot of the resolved configuration
+ * Every known key is declared below with its type, default and allowed range or format; a snapshot parses
+ * all of them once when it is built and fails with every problem listed, so a typo in a property
+ * file or -D flag stops the run before the first browser starts. The settings read on every
+ * command or page (timeouts, feature switches) are plain fields. Unknown keys are kept as strings.
+ * Obtain the current snapshot from ConfigReader.get(); use with() to derive a changed copy.
+ */
+public final class Config {
+    private enum Type { STRING, BOOLEAN, INT, LONG, DOUBLE, URL }
+
+    private static final Map<String, Key> KEYS = new LinkedHashMap<>();
+
+    static {
+        // Application
+        define("base.url", Type.URL, null).required();
+        define("app.target", Type.STRING, "remote").oneOf("remote", "local");
+        define("local.server.port", Type.INT, "0").range(0, 65535);
+        define("config.profile", Type.STRING, null);
+
+        // Browser
+        define("browser", Type.STRING, null).required().oneOf("chrome", "firefox", "edge");
+        define("browser.profile", Type.STRING, "default").oneOf("default", "headless", "headless-lean");
+        define("browser.headless", Type.BOOLEAN, null);
+        define("browser.window.size", Type.STRING, null).format("[1-9]\\d*,[1-9]\\d*", "width,height, e.g. 1920,1080");
+        define("browser.page.load.strategy", Type.STRING, null).oneOf("normal", "eager", "none");
+        define("driver.offline", Type.BOOLEAN, "false");
+        define("driver.cache.manifest", Type.STRING, null);
+        define("driver.pool.enabled", Type.BOOLEAN, "false");
+        define("driver.pool.size", Type.INT, null).range(1, Integer.MAX_VALUE);
+        define("driver.pool.warmup", Type.INT, null).range(0, Integer.MAX_VALUE);
+        define("driver.pool.max.uses", Type.INT, "25").range(1, Integer.MAX_VALUE);
+
+        // Waits, in seconds
+        define("implicit.wait", Type.INT, "15").range(0, 600);
+        define("explicit.wait", Type.INT, "15").range(1, 600);
+        define("page.load.timeout", Type.INT, "30").range(1, 600);
+        define("probe.budget.ms", Type.LONG, "2000").range(0, 600_000);
+        define("adaptive.timeouts.enabled", Type.BOOLEAN, "false");
+        define("adaptive.timeouts.history", Type.STRING, "latency-history/waits.tsv");
+        define("adaptive.timeouts.history.runs", Type.INT, "10").range(1, 1000);
+        define("adaptive.timeouts.min.samples", Type.INT, "20").range(1, Integer.MAX_VALUE);
+        define("adaptive.timeouts.factor", Type.DOUBLE, "3").range(1, 100);
+        define("adaptive.timeouts.min.ms", Type.LONG, "3000").range(1, 600_000);
+        define("adaptive.timeouts.retry", Type.BOOLEAN, "false");
+        define("adaptive.timeouts.override.ms", Type.LONG, null).range(1, 600_000);
+        define("adaptive.timeouts.drift.ratio", Type.DOUBLE, "1.5").range(1, 100);
+        define("adaptive.timeouts.report", Type.STRING, "target/adaptive-timeouts.csv");
+
+        // Test data and sessions
+        define("api.base.url", Type.URL, null);
+        define("api.timeout.seconds", Type.INT, "30").range(1, 600);
+        define("session.cache.enabled", Type.BOOLEAN, "false");
+        define("data.run.id", Type.STRING, null);
+        define("account.pool.enabled", Type.BOOLEAN, "false");
+        define("account.pool.size", Type.INT, null).range(1, 1000);
+        define("account.pool.lease.timeout.seconds", Type.INT, "120").range(1, 3600);
+
+        // Diagnostics
+        define("command.metrics.enabled", Type.BOOLEAN, "false");
+        define("command.metrics.report", Type.STRING, "target/command-latency.csv");
+        define("failure.bundle.enabled", Type.BOOLEAN, "true");
+        define("failure.bundle.dir", Type.STRING, "failures/");
+        define("failure.bundle.budget.ms", Type.LONG, "5000").range(1, Long.MAX_VALUE);
+        define("failure.bundle.commands", Type.INT, "25").range(0, 10_000);
+        define("screenshot.dir", Type.STRING, "screenshots/");
+        define("screenshot.dedupe.perceptual", Type.BOOLEAN, "false");
+        define("screenshot.dedupe.max.distance", Type.INT, "5").range(0, 64);
+        define("screenshot.store.max.mb", Type.LONG, "512").range(0, Long.MAX_VALUE);
+        define("screenshot.store.max.age.days", Type.LONG, "14").range(0, Long.MAX_VALUE);
+        define("screenshot.writer.threads", Type.INT, "2").range(1, 64);
+        define("screenshot.writer.queue", Type.INT, "32").range(1, 100_000);
+        define("log.dir", Type.STRING, "logs/");
+    }
+
+    private final Map<String, String> values;
+    private final Map<String, Object> typed;
+
+    private final String baseUrl;
+    private final Duration implicitWait;
+    private final Duration explicitWait;
+    private final Duration pageLoadTimeout;
+    private final boolean driverPoolEnabled;
+    private final boolean sessionCacheEnabled;
+    private final boolean commandMetricsEnabled;
+    private final boolean failureBundleEnabled;
+
+    private Config(Map<String, String> values) {
+        this.values = Collections.unmodifiableMap(new HashMap<>(values));
+        Map<String, Object> parsed = new HashMap<>();
+        List<String> problems = new ArrayList<>();
+        for (Key key : KEYS.values()) {
+            String raw = values.get(key.name);
+            if (raw == null || raw.trim().isEmpty()) {
+                raw = key.defaultValue;
+            }
+            if (raw == null) {
+                if (key.required) {
+                    problems.add(key.name + " is required");
+                }
+                continue;
+            }
+            try {
+                parsed.put(key.name, key.parse(raw.trim()));
+            } catch (IllegalArgumentException e) {
+                problems.add(key.name + "=" + raw + ": " + e.getMessage());
+            }
+        }
+        if (!problems.isEmpty()) {
+            throw new RuntimeException("Invalid configuration:\n  " + String.join("\n  ", problems));
+        }
+        this.typed = Collections.unmodifiableMap(parsed);
+
+        this.baseUrl = (String) typed.get("base.url");
+        this.implicitWait = Duration.ofSeconds(getInt("implicit.wait"));
+        this.explicitWait = Duration.ofSeconds(getInt("explicit.wait"));
+        this.pageLoadTimeout = Duration.ofSeconds(getInt("page.load.timeout"));
+        this.driverPoolEnabled = getBoolean("driver.pool.enabled");
+        this.sessionCacheEnabled = getBoolean("session.cache.enabled");
+        this.commandMetricsEnabled = getBoolean("command.metrics.enabled");
+        this.failureBundleEnabled = getBoolean("failure.bundle.enabled");
+    }
+
+    /**
+     * Build and validate a snapshot from resolved key/value pairs
+     */
+    static Config of(Map<String, String> values) {
+        return new Config(values);
+    }
+
+    /**
+     * Check if a key is declared, i.e. may be set from the environment or -D
+     */
+    public static boolean isKnownKey(String key) {
+        return KEYS.containsKey(key);
+    }
+
+    /**
+     * Get the names of all declared keys
+     */
+    public static Set<String> knownKeys() {
+        return Collections.unmodifiableSet(KEYS.keySet());
+    }
+
+    /**
+     * Get a copy of this snapshot with one value replaced; the copy is validated again
+     */
+    public Config with(String key, String value) {
+        return with(Collections.singletonMap(key, value));
+    }
+
+    /**
+     * Get a copy of this snapshot with several values replaced; the copy is validated again
+     */
+    public Config with(Map<String, String> overrides) {
+        Map<String, String> merged = new HashMap<>(values);
+        merged.putAll(overrides);
+        return new Config(merged);
+    }
+
+    /**
+     * Get the raw resolved values, keyed by property name
+     */
+    public Map<String, String> asMap() {
+        return values;
+    }
+
+    /**
+     * Get a value as text, failing when it is neither set nor defaulted
+     */
+    public String getString(String key) {
+        String value = getString(key, null);
+        if (value == null) {
+            throw new RuntimeException("Property not found in config file: " + key);
+        }
+        return value;
+    }
+
+    /**
+     * Get a value as text, falling back to a default when absent
+     */
+    public String getString(String key, String defaultValue) {
+        Object value = typed.get(key);
+        if (value != null) {
+            return value.toString();
+        }
+        String raw = values.get(key);
+        return raw != null ? raw : defaultValue;
+    }
+
+    /**
+     * Get a declared integer value
+     */
+    public int getInt(String key) {
+        return (Integer) require(key, Type.INT);
+    }
+
+    /**
+     * Get a declared integer value that has no static default
+     */
+    public int getInt(String key, int defaultValue) {
+        Object value = lookup(key, Type.INT);
+        return value != null ? (Integer) value : defaultValue;
+    }
+
+    /**
+     * Get a declared long value
+     */
+    public long getLong(String key) {
+        return (Long) require(key, Type.LONG);
+    }
+
+    /**
+     * Get a declared long value that has no static default
+     */
+    public long getLong(String key, long defaultValue) {
+        Object value = lookup(key, Type.LONG);
+        return value != null ? (Long) value : defaultValue;
+    }
+
+    /**
+     * Get a declared decimal value
+     */
+    public double getDouble(String key) {
+        return (Double) require(key, Type.DOUBLE);
+    }
+
+    /**
+     * Get a declared boolean value
+     */
+    public boolean getBoolean(String key) {
+        return (Boolean) require(key, Type.BOOLEAN);
+    }
+
+    /**
+     * Get a declared boolean value that has no static default
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        Object value = lookup(key, Type.BOOLEAN);
+        return value != null ? (Boolean) value : defaultValue;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public Duration getImplicitWait() {
+        return implicitWait;
+    }
+
+    public Duration getExplicitWait() {
+        return explicitWait;
+    }
+
+    public Duration getPageLoadTimeout() {
+        return pageLoadTimeout;
+    }
+
+    public boolean isDriverPoolEnabled() {
+        return driverPoolEnabled;
+    }
+
+    public boolean isSessionCacheEnabled() {
+        return sessionCacheEnabled;
+    }
+
+    public boolean isCommandMetricsEnabled() {
+        return commandMetricsEnabled;
+    }
+
+    public boolean isFailureBundleEnabled() {
+        return failureBundleEnabled;
+    }
+
+    private Object require(String key, Type type) {
+        Object value = lookup(key, type);
+        if (value == null) {
+            throw new RuntimeException("Property not found in config file: " + key);
+        }
+        return value;
+    }
+
+    private Object lookup(String key, Type type) {
+        Key declared = KEYS.get(key);
+        if (declared == null || declared.type != type) {
+            throw new IllegalArgumentException("Config key " + key + " is not declared as " + type);
+        }
+        return typed.get(key);
+    }
+
+    private static Key define(String name, Type type, String defaultValue) {
+        Key key = new Key(name, type, defaultValue);
+        KEYS.put(name, key);
+        return key;
+    }
+
+    /**
+     * One declared key: its type, default and constraints
+     */
+    private static final class Key {
+        private final String name;
+        private final Type type;
+        private final String defaultValue;
+        private boolean required;
+        private long min = Long.MIN_VALUE;
+        private long max = Long.MAX_VALUE;
+        private List<String> choices;
+        private Pattern format;
+        private String formatDescription;
+
+        Key(String name, Type type, String defaultValue) {
+            this.name = name;
+            this.type = type;
+            this.defaultValue = defaultValue;
+        }
+
+        Key required() {
+            required = true;
+            return this;
+        }
+
+        Key range(long min, long max) {
+            this.min = min;
+            this.max = max;
+            return this;
+        }
+
+        Key oneOf(String... choices) {
+            this.choices = Arrays.asList(choices);
+            return this;
+        }
+
+        Key format(String regex, String description) {
+            this.format = Pattern.compile(regex);
+            this.formatDescription = description;
+            return this;
+        }
+
+        Object parse(String raw) {
+            switch (type) {
+                case BOOLEAN:
+                    if (!raw.equalsIgnoreCase("true") && !raw.equalsIgnoreCase("false")) {
+                        throw new IllegalArgumentException("expected true or false");
+                    }
+                    return Boolean.parseBoolean(raw);
+                case INT:
+                    return (int) checkRange(parseLong(raw, Integer.MIN_VALUE, Integer.MAX_VALUE));
+                case LONG:
+                    return checkRange(parseLong(raw, Long.MIN_VALUE, Long.MAX_VALUE));
+                case DOUBLE:
+                    return checkRange(parseDouble(raw));
+                case URL:
+                    URI uri = URI.create(raw);
+                    if (uri.getScheme() == null || uri.getHost() == null) {
+                        throw new IllegalArgumentException("expected an absolute http(s) URL");
+                    }
+                    return raw;
+                case STRING:
+                default:
+                    if (choices != null && !choices.contains(raw.toLowerCase())) {
+                        throw new IllegalArgumentException("expected one of " + choices);
+                    }
+                    if (format != null && !format.matcher(raw).matches()) {
+                        throw new IllegalArgumentException("expected " + formatDescription);
+                    }
+                    return choices != null ? raw.toLowerCase() : raw;
+            }
+        }
+
+        private long parseLong(String raw, long lowest, long highest) {
+            long value;
+            try {
+                value = Long.parseLong(raw);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("expected a whole number");
+            }
+            if (value < lowest || value > highest) {
+                throw new IllegalArgumentException("out of range");
+            }
+            return value;
+        }
+
+        private double parseDouble(String raw) {
+            double value;
+            try {
+                value = Double.parseDouble(raw);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("expected a number");
+            }
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                throw new IllegalArgumentException("expected a finite number");
+            }
+            return value;
+        }
+
+        private double checkRange(double value) {
+            if (value < min || value > max) {
+                throw new IllegalArgumentException("expected a value between " + min + " and " + max);
+            }
+            return value;
+        }
+
+        private long checkRange(long value) {
+            if (value < min || value > max) {
+                throw new IllegalArgumentException("expected a value between " + min + " and " + max);
+            }
+            return value;
+        }
+    }
+}
@@ -2,42 +2,218 @@ package utils;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
+import java.util.function.Function;
 
 /**
- * ConfigReader - Reads configuration properties
+ * ConfigReader - Resolves the configuration once and hands out immutable Config snapshots
+ *
+ * Layers, later ones winning:
+ *   1. config/config.properties on the classpath (src/test/resources)
+ *   2. the profile file config/config-<config.profile>.properties, when a profile is selected
+ *   3. environment variables PARABANK_<KEY>, e.g. PARABANK_BASE_URL for base.url
+ *   4. -D system properties for declared keys, e.g. -Dbrowser=firefox
+ *
+ * The result is validated when this class is first used, normally at suite start, and a bad
+ * value fails the run there. override() replaces a value for the whole JVM (e.g. base.url once
+ * the local server is bound); overrideForThread() replaces it for the calling worker only.
  */
 public class ConfigReader {
-    private static Properties properties;
-    private static final String CONFIG_FILE_PATH = "src/test/resources/config/config.properties";
+    private static final String CONFIG_RESOURCE = "config/config.properties";
+    private static final String PROFILE_RESOURCE = "config/config-%s.properties";
+    private static final Path SOURCE_DIR = Paths.get("src/test/resources");
+    private static final String ENV_PREFIX = "PARABANK_";
 
-    static {
-        loadProperties();
-    }
+    private static volatile Config global = load();
+
+    private static final ThreadLocal<ThreadOverrides> threadOverrides = new ThreadLocal<>();
+    // Lets get() skip the ThreadLocal lookup until some worker actually overrides a value
+    private static volatile boolean threadOverridesUsed;
 
     /**
-     * Load properties from config file
+     * Get the snapshot that applies to the calling thread
      */
-    private static void loadProperties() {
-        properties = new Properties();
-        try {
-            FileInputStream fis = new FileInputStream(CONFIG_FILE_PATH);
-            properties.load(fis);
-            fis.close();
-        } catch (IOException e) {
-            e.printStackTrace();
-            throw new RuntimeException("Failed to load config properties file: " + CONFIG_FILE_PATH);
+    public static Config get() {
+        if (threadOverridesUsed) {
+            ThreadOverrides overrides = threadOverrides.get();
+            if (overrides != null) {
+                return overrides.resolve(global);
+            }
         }
+        return global;
     }
 
     /**
      * Get property value by key
      */
     public static String getProperty(String key) {
-        String value = properties.getProperty(key);
-        if (value == null) {
-            throw new RuntimeException("Property not found in config file: " + key);
+        return get().getString(key);
+    }
+
+    /**
+     * Get property value by key, falling back to a default when absent
+     */
+    public static String getProperty(String key, String defaultValue) {
+        return get().getString(key, defaultValue);
+    }
+
+    /**
+     * Override a property for the rest of the run, e.g. base.url once a local server is bound
+     */
+    public static synchronized void override(String key, String value) {
+        global = global.with(key, value);
+    }
+
+    /**
+     * Override a property for the calling thread only, e.g. a per-worker account or browser
+     */
+    public static void overrideForThread(String key, String value) {
+        ThreadOverrides overrides = threadOverrides.get();
+        if (overrides == null) {
+            overrides = new ThreadOverrides();
+            threadOverrides.set(overrides);
+        }
+        overrides.put(key, value, global);
+        threadOverridesUsed = true;
+    }
+
+    /**
+     * Drop the calling thread's overrides
+     */
+    public static void clearThreadOverrides() {
+        threadOverrides.remove();
+    }
+
+    /**
+     * Get the -D flags that reproduce this JVM's system property overrides in a child JVM
+     */
+    public static Map<String, String> systemOverrides() {
+        Map<String, String> overrides = new LinkedHashMap<>();
+        for (String key : Config.knownKeys()) {
+            String value = System.getProperty(key);
+            if (value != null) {
+                overrides.put(key, value);
+            }
+        }
+        return overrides;
+    }
+
+    /**
+     * Resolve every layer and validate the result
+     */
+    private static Config load() {
+        return resolve(readRequired(CONFIG_RESOURCE),
+                profile -> readRequired(String.format(PROFILE_RESOURCE, profile)),
+                fromEnvironment(System.getenv()), systemOverrides());
+    }
+
+    /**
+     * Layer the base file, the selected profile file, environment values and -D values, later
+     * ones winning, and validate the result; the profile may be chosen in any of the layers
+     */
+    static Config resolve(Properties file, Function<String, Properties> profiles,
+                          Map<String, String> environment, Map<String, String> system) {
+        Map<String, String> values = new HashMap<>();
+        putAll(values, file);
+
+        String profile = firstNonBlank(system.get("config.profile"),
+                environment.get("config.profile"), values.get("config.profile"));
+        if (profile != null) {
+            putAll(values, profiles.apply(profile.trim()));
+        }
+
+        values.putAll(environment);
+        values.putAll(system);
+        if (profile != null) {
+            values.put("config.profile", profile.trim());
+        }
+        return Config.of(values);
+    }
+
+    /**
+     * Read a properties resource from the classpath, or from the source tree when run outside Maven
+     */
+    private static Properties readRequired(String resource) {
+        Properties properties = new Properties();
+        try (InputStream in = open(resource)) {
+            properties.load(in);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load config properties file: " + resource, e);
+        }
+        return properties;
+    }
+
+    private static InputStream open(String resource) throws IOException {
+        InputStream in = ConfigReader.class.getClassLoader().getResourceAsStream(resource);
+        if (in != null) {
+            return in;
+        }
+        Path file = SOURCE_DIR.resolve(resource);
+        if (Files.isRegularFile(file)) {
+            return new FileInputStream(file.toFile());
+        }
+        throw new IOException("not found on the classpath or at " + file);
+    }
+
+    /**
+     * Map PARABANK_* variables to property keys: PARABANK_BASE_URL becomes base.url
+     */
+    static Map<String, String> fromEnvironment(Map<String, String> variables) {
+        Map<String, String> values = new HashMap<>();
+        for (Map.Entry<String, String> variable : variables.entrySet()) {
+            if (variable.getKey().startsWith(ENV_PREFIX)) {
+                String key = variable.getKey().substring(ENV_PREFIX.length())
+                        .toLowerCase(Locale.ROOT).replace('_', '.');
+                values.put(key, variable.getValue());
+            }
+        }
+        return values;
+    }
+
+    private static void putAll(Map<String, String> values, Properties properties) {
+        for (String key : properties.stringPropertyNames()) {
+            values.put(key, properties.getProperty(key));
+        }
+    }
+
+    private static String firstNonBlank(String... candidates) {
+        for (String candidate : candidates) {
+            if (candidate != null && !candidate.trim().isEmpty()) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * One thread's overrides, re-applied whenever the global snapshot changes underneath them
+     */
+    private static final class ThreadOverrides {
+        private final Map<String, String> values = new HashMap<>();
+        private Config base;
+        private Config resolved;
+
+        void put(String key, String value, Config global) {
+            values.put(key, value);
+            // Validate now so a bad override fails at the call that made it
+            base = global;
+            resolved = global.with(values);
+        }
+
+        Config resolve(Config global) {
+            if (base != global) {
+                base = global;
+                resolved = global.with(values);
+            }
+            return resolved;
         }
-        return value;
     }
 }
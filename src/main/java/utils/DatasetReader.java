@@ -0,0 +1,282 @@
+package utils;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * DatasetReader - Streams rows of a CSV or JSONL dataset into a TestNG data provider
+ * Rows are parsed one at a time from a buffered file channel, so memory use does not grow with
+ * the dataset. Each record must be on one line; CSV files start with a header row, JSONL files
+ * hold one flat JSON object per line. Columns are selected by name, in the order of the test
+ * method's parameters.
+ *
+ * A run split with ShardRunner (shard.index / shard.count) reads only its byte range of the
+ * file: a shard starts at the first line that begins inside its range and stops after the last
+ * such line, so every row is read by exactly one shard without counting rows first.
+ *
+ * The reader is a plain iterator and not thread-safe, so its data provider must stay sequential
+ * (parallel = false, the default); rows are still spread across shards.
+ *
+ * <pre>
+ * &#64;DataProvider(name = "transfers")
+ * public Iterator&lt;Object[]&gt; transfers() {
+ *     return DatasetReader.rows("testdata/transfers.csv", "amount", "fromAccountIndex", "toAccountIndex");
+ * }
+ * </pre>
+ */
+public class DatasetReader implements Iterator<Object[]>, Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Json JSON = new Json();
+
+    private final Path file;
+    private final boolean jsonl;
+    private final String[] columns;
+    private final long end;
+    private int[] csvIndexes;
+    private InputStream in;
+    private long position;
+    private byte[] line = new byte[256];
+    private Object[] next;
+
+    private DatasetReader(Path file, int shardIndex, int shardCount, String[] columns) throws IOException {
+        if (shardCount < 1 || shardIndex < 0 || shardIndex >= shardCount) {
+            throw new IllegalArgumentException("Invalid shard " + shardIndex + " of " + shardCount);
+        }
+        this.file = file;
+        this.jsonl = file.getFileName().toString().toLowerCase().endsWith(".jsonl");
+        this.columns = columns;
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        long size = channel.size();
+        long start = size * shardIndex / shardCount;
+        this.end = size * (shardIndex + 1) / shardCount;
+        this.in = new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE);
+
+        if (!jsonl) {
+            String header = readLine();
+            if (header == null) {
+                throw new IllegalArgumentException("Dataset has no header row: " + file);
+            }
+            csvIndexes = indexes(parseCsv(header));
+        }
+        if (start > position) {
+            // Land on the first line that begins inside this shard's range
+            channel.position(start - 1);
+            in = new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE);
+            position = start - 1;
+            readLine();
+        }
+    }
+
+    /**
+     * Stream the selected columns of this JVM's shard of a dataset
+     */
+    public static DatasetReader rows(String path, String... columns) {
+        return rows(path, Integer.getInteger("shard.index", 0), Integer.getInteger("shard.count", 1), columns);
+    }
+
+    /**
+     * Stream the selected columns of one shard of a dataset
+     */
+    public static DatasetReader rows(String path, int shardIndex, int shardCount, String... columns) {
+        Path file = resolve(path);
+        try {
+            LoggerUtil.info("Streaming dataset {} (shard {} of {})", file, shardIndex + 1, shardCount);
+            return new DatasetReader(file, shardIndex, shardCount, columns);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open dataset: " + file, e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && in != null) {
+            next = readRow();
+        }
+        return next != null;
+    }
+
+    @Override
+    public Object[] next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Object[] row = next;
+        next = null;
+        return row;
+    }
+
+    @Override
+    public void close() {
+        if (in != null) {
+            try {
+                in.close();
+            } catch (IOException e) {
+                LoggerUtil.warn("Failed to close dataset {}", file);
+            }
+            in = null;
+        }
+    }
+
+    private Object[] readRow() {
+        try {
+            while (position < end) {
+                long lineStart = position;
+                String text = readLine();
+                if (text == null) {
+                    break;
+                }
+                if (text.trim().isEmpty()) {
+                    continue;
+                }
+                try {
+                    return jsonl ? jsonRow(text) : csvRow(text);
+                } catch (RuntimeException e) {
+                    throw new RuntimeException("Bad record at byte " + lineStart + " of " + file + ": "
+                            + e.getMessage(), e);
+                }
+            }
+            close();
+            return null;
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException("Failed to read dataset: " + file, e);
+        }
+    }
+
+    /**
+     * Read the next line as UTF-8 without its line terminator; null at end of file
+     */
+    private String readLine() throws IOException {
+        int length = 0;
+        int b;
+        while ((b = in.read()) != -1) {
+            position++;
+            if (b == '\n') {
+                break;
+            }
+            if (length == line.length) {
+                line = Arrays.copyOf(line, length * 2);
+            }
+            line[length++] = (byte) b;
+        }
+        if (b == -1 && length == 0) {
+            return null;
+        }
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        return new String(line, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private Object[] csvRow(String text) {
+        List<String> fields = parseCsv(text);
+        Object[] row = new Object[csvIndexes.length];
+        for (int i = 0; i < csvIndexes.length; i++) {
+            int index = csvIndexes[i];
+            if (index >= fields.size()) {
+                throw new IllegalArgumentException("missing column " + columns[i]);
+            }
+            row[i] = fields.get(index);
+        }
+        return row;
+    }
+
+    private Object[] jsonRow(String text) {
+        Map<String, Object> record = JSON.toType(text, Json.MAP_TYPE);
+        Object[] row = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            if (!record.containsKey(columns[i])) {
+                throw new IllegalArgumentException("missing field " + columns[i]);
+            }
+            Object value = record.get(columns[i]);
+            row[i] = value == null ? null : value.toString();
+        }
+        return row;
+    }
+
+    private int[] indexes(List<String> header) {
+        int[] indexes = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            indexes[i] = header.indexOf(columns[i]);
+            if (indexes[i] < 0) {
+                throw new IllegalArgumentException("Dataset " + file + " has no column " + columns[i]
+                        + " (header: " + header + ")");
+            }
+        }
+        return indexes;
+    }
+
+    /**
+     * Split one CSV record: comma separated, double-quoted fields may contain commas and "" escapes
+     */
+    private static List<String> parseCsv(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field (records must be on one line)");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Find a dataset on disk, or as a classpath resource unpacked on disk (target/test-classes)
+     */
+    private static Path resolve(String path) {
+        Path file = Paths.get(path);
+        if (Files.isRegularFile(file)) {
+            return file;
+        }
+        URL resource = DatasetReader.class.getClassLoader().getResource(path);
+        if (resource != null && "file".equals(resource.getProtocol())) {
+            try {
+                return Paths.get(resource.toURI());
+            } catch (URISyntaxException e) {
+                throw new RuntimeException("Bad dataset location: " + resource, e);
+            }
+        }
+        throw new RuntimeException("Dataset not found as a file or classpath resource: " + path);
+    }
+}
@@ -0,0 +1,186 @@
+package utils;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import io.github.bonigarcia.wdm.versions.VersionDetector;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * DriverBinaryCache - Resolves browser driver binaries once and reuses them
+ * Lookup order: this JVM, an explicit webdriver.*.driver system property, the on-disk manifest
+ * shared by every JVM on the machine, and finally WebDriverManager (skipped in offline mode)
+ *
+ * Manifest entries record the browser version the driver was resolved for. Online, the installed
+ * browser's version is detected (a local shell command) and a cached driver for another version is
+ * resolved again, so a browser update does not keep the old driver. Offline, the cached driver is
+ * used as is.
+ */
+public class DriverBinaryCache {
+    private static final String DEFAULT_MANIFEST = System.getProperty("user.home")
+            + "/.cache/parabank-automation/drivers.properties";
+    private static final Map<String, String> resolved = new ConcurrentHashMap<>();
+
+    /**
+     * Make the driver binary for a browser available to Selenium, resolving it at most once per JVM
+     */
+    public static String resolve(String browser) {
+        String path = resolved.get(browser);
+        if (path != null) {
+            return path;
+        }
+        synchronized (DriverBinaryCache.class) {
+            return resolved.computeIfAbsent(browser, DriverBinaryCache::resolveOnce);
+        }
+    }
+
+    /**
+     * Check if driver resolution must never touch the network
+     */
+    public static boolean isOffline() {
+        return ConfigReader.get().getBoolean("driver.offline");
+    }
+
+    private static String resolveOnce(String browser) {
+        String systemProperty = getSystemPropertyName(browser);
+
+        // Binary supplied by the environment, e.g. a CI image with a pre-installed driver
+        String preset = System.getProperty(systemProperty);
+        if (isExecutable(preset)) {
+            LoggerUtil.info("Using preset {} driver: {}", browser, preset);
+            return preset;
+        }
+
+        File manifest = getManifestFile();
+        Properties entries = loadManifest(manifest);
+        String cached = entries.getProperty(browser + ".path");
+        WebDriverManager manager = getManager(browser);
+        boolean offline = isOffline();
+        String browserVersion = offline ? null : detectBrowserVersion(manager).orElse(null);
+        if (isExecutable(cached)) {
+            String cachedVersion = entries.getProperty(browser + ".browserVersion");
+            if (offline || browserVersion == null || browserVersion.equals(cachedVersion)) {
+                System.setProperty(systemProperty, cached);
+                LoggerUtil.info("Using cached {} driver: {}", browser, cached);
+                return cached;
+            }
+            LoggerUtil.info("Installed {} is {}, cached driver was resolved for {}; resolving again",
+                    browser, browserVersion, cachedVersion == null ? "an unknown version" : cachedVersion);
+        }
+
+        if (offline) {
+            throw new RuntimeException("Offline mode: no cached " + browser + " driver in " + manifest.getPath()
+                    + ". Run once with driver.offline=false or set -D" + systemProperty + "=<path>");
+        }
+
+        manager.setup();
+        String downloaded = manager.getDownloadedDriverPath();
+        if (!isExecutable(downloaded)) {
+            throw new RuntimeException("WebDriverManager did not provide a " + browser + " driver binary");
+        }
+        System.setProperty(systemProperty, downloaded);
+        saveManifest(manifest, browser, downloaded, browserVersion);
+        LoggerUtil.info("Resolved {} driver: {}", browser, downloaded);
+        return downloaded;
+    }
+
+    private static WebDriverManager getManager(String browser) {
+        switch (browser) {
+            case "firefox":
+                return WebDriverManager.firefoxdriver();
+            case "edge":
+                return WebDriverManager.edgedriver();
+            case "chrome":
+            default:
+                return WebDriverManager.chromedriver();
+        }
+    }
+
+    /**
+     * Detect the installed browser's version from the shell, without touching the network
+     */
+    private static Optional<String> detectBrowserVersion(WebDriverManager manager) {
+        try {
+            return new VersionDetector(manager.config(), null)
+                    .getBrowserVersionFromTheShell(manager.getDriverManagerType().getBrowserNameLowerCase());
+        } catch (RuntimeException e) {
+            LoggerUtil.debug("Could not detect the installed browser version: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static String getSystemPropertyName(String browser) {
+        switch (browser) {
+            case "firefox":
+                return "webdriver.gecko.driver";
+            case "edge":
+                return "webdriver.edge.driver";
+            case "chrome":
+            default:
+                return "webdriver.chrome.driver";
+        }
+    }
+
+    private static File getManifestFile() {
+        return new File(ConfigReader.getProperty("driver.cache.manifest", DEFAULT_MANIFEST));
+    }
+
+    private static boolean isExecutable(String path) {
+        return path != null && !path.isEmpty() && new File(path).canExecute();
+    }
+
+    private static Properties loadManifest(File manifest) {
+        Properties entries = new Properties();
+        if (manifest.isFile()) {
+            try (InputStream in = new FileInputStream(manifest)) {
+                entries.load(in);
+            } catch (IOException e) {
+                LoggerUtil.warn("Ignoring unreadable driver manifest {}: {}", manifest.getPath(), e.getMessage());
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Record a resolved binary under a file lock, so JVMs resolving different browsers at once do not
+     * drop each other's entries; written to a temp file and moved so readers never see a partial file
+     */
+    private static void saveManifest(File manifest, String browser, String path, String browserVersion) {
+        File dir = manifest.getAbsoluteFile().getParentFile();
+        dir.mkdirs();
+        File lockFile = new File(dir, manifest.getName() + ".lock");
+        try (FileChannel channel = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE)) {
+            channel.lock();
+            Properties entries = loadManifest(manifest);
+            entries.setProperty(browser + ".path", path);
+            if (browserVersion != null) {
+                entries.setProperty(browser + ".browserVersion", browserVersion);
+            } else {
+                entries.remove(browser + ".browserVersion");
+            }
+            entries.setProperty(browser + ".resolvedAt", String.valueOf(System.currentTimeMillis()));
+
+            File temp = File.createTempFile("drivers", ".properties", dir);
+            try (OutputStream out = new FileOutputStream(temp)) {
+                entries.store(out, "Resolved WebDriver binaries");
+            }
+            Files.move(temp.toPath(), manifest.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LoggerUtil.warn("Failed to update driver manifest {}: {}", manifest.getPath(), e.getMessage());
+        }
+    }
+}
@@ -1,84 +1,166 @@
 package utils;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import listeners.CommandTimingListener;
+import listeners.ParallelExecutionListener;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
 
-import java.time.Duration;
 
 /**
  * DriverFactory - Manages WebDriver initialization
  */
 public class DriverFactory {
     private static final ThreadLocal<WebDriver> driver = new ThreadLocal<>();
+    private static volatile DriverPool pool;
 
     /**
-     * Get WebDriver instance
+     * Get WebDriver instance, leased from the pool when pooling is enabled
      */
     public static WebDriver getDriver() {
         if (driver.get() == null) {
-            driver.set(createDriver());
+            driver.set(isPoolEnabled() ? getPool().lease() : createDriver());
         }
         return driver.get();
     }
 
+    /**
+     * Get the current thread's driver without creating one
+     */
+    public static WebDriver getCurrentDriver() {
+        return driver.get();
+    }
+
+    /**
+     * Check if drivers are served from the warm pool
+     */
+    public static boolean isPoolEnabled() {
+        return ConfigReader.get().isDriverPoolEnabled();
+    }
+
+    /**
+     * Get the shared driver pool, creating it on first use
+     */
+    private static DriverPool getPool() {
+        if (pool == null) {
+            synchronized (DriverFactory.class) {
+                if (pool == null) {
+                    // One browser per worker thread unless sized explicitly
+                    Config config = ConfigReader.get();
+                    int size = config.getInt("driver.pool.size", ParallelExecutionListener.getWorkerCount());
+                    int maxUses = config.getInt("driver.pool.max.uses");
+                    pool = new DriverPool(DriverFactory::createDriver, config.getBaseUrl(), size, maxUses);
+                    Runtime.getRuntime().addShutdownHook(new Thread(pool::shutdown, "driver-pool-shutdown"));
+                    LoggerUtil.info("Driver pool created - size: {}, max uses per browser: {}", size, maxUses);
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Pre-start pooled browsers so the first tests do not pay browser startup
+     */
+    public static void warmUpPool() {
+        if (isPoolEnabled()) {
+            DriverPool driverPool = getPool();
+            driverPool.warmUp(ConfigReader.get().getInt("driver.pool.warmup", driverPool.getMaxSize()));
+        }
+    }
+
+    /**
+     * Quit all pooled browsers
+     */
+    public static void shutdownPool() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
     /**
      * Create WebDriver based on browser type
      */
     private static WebDriver createDriver() {
-        String browser = ConfigReader.getProperty("browser");
+        Config config = ConfigReader.get();
+        String browser = config.getString("browser");
+        BrowserProfile profile = BrowserProfile.fromConfig();
         WebDriver webDriver;
 
         switch (browser.toLowerCase()) {
             case "firefox":
-                WebDriverManager.firefoxdriver().setup();
-                webDriver = new FirefoxDriver();
-                LoggerUtil.info("Firefox browser initialized");
+                DriverBinaryCache.resolve("firefox");
+                webDriver = new FirefoxDriver(profile.firefoxOptions());
+                LoggerUtil.info("Firefox browser initialized with profile: {}", profile.getName());
                 break;
 
             case "edge":
-                WebDriverManager.edgedriver().setup();
-                webDriver = new EdgeDriver();
-                LoggerUtil.info("Edge browser initialized");
+                DriverBinaryCache.resolve("edge");
+                webDriver = new EdgeDriver(profile.edgeOptions());
+                LoggerUtil.info("Edge browser initialized with profile: {}", profile.getName());
                 break;
 
             case "chrome":
             default:
-                WebDriverManager.chromedriver().setup();
-                ChromeOptions options = new ChromeOptions();
-                options.addArguments("--remote-allow-origins=*");
-                options.addArguments("--disable-notifications");
-                options.addArguments("--disable-blink-features=AutomationControlled");
-                options.addArguments("--disable-dev-shm-usage");
-                options.addArguments("--no-sandbox");
-                options.addArguments("--start-maximized");
-                options.addArguments("user-agent=Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36");
-                options.setExperimentalOption("excludeSwitches", new String[]{"enable-automation"});
-                options.setExperimentalOption("useAutomationExtension", false);
-                webDriver = new ChromeDriver(options);
-                LoggerUtil.info("Chrome browser initialized");
+                DriverBinaryCache.resolve("chrome");
+                webDriver = new ChromeDriver(profile.chromeOptions());
+                LoggerUtil.info("Chrome browser initialized with profile: {}", profile.getName());
                 break;
         }
 
-        // Set implicit wait
-        int implicitWait = Integer.parseInt(ConfigReader.getProperty("implicit.wait"));
-        webDriver.manage().timeouts().implicitlyWait(Duration.ofSeconds(implicitWait));
+        // Set implicit wait and page load timeout; async scripts (page readiness) wait up to the longest wait timeout
+        webDriver.manage().timeouts().implicitlyWait(config.getImplicitWait());
+        webDriver.manage().timeouts().pageLoadTimeout(config.getPageLoadTimeout());
+        webDriver.manage().timeouts().scriptTimeout(AdaptiveTimeouts.longestTimeout().plusSeconds(5));
+
+        // Fixed-viewport profiles are sized at launch; headed default profile is maximized once per browser
+        if (profile.shouldMaximize()) {
+            webDriver.manage().window().maximize();
+        }
+
+        // Time every command against the page action that issued it, and keep the last few for failure bundles
+        if (CommandMetrics.isEnabled() || CommandHistory.isEnabled()) {
+            webDriver = new EventFiringDecorator<WebDriver>(new CommandTimingListener()).decorate(webDriver);
+        }
 
         return webDriver;
     }
 
+    /**
+     * Release the current thread's driver: return it to the pool, or quit it when pooling is off
+     */
+    public static void releaseDriver() {
+        WebDriver current = driver.get();
+        if (current == null) {
+            return;
+        }
+        try {
+            if (isPoolEnabled()) {
+                getPool().release(current);
+            } else {
+                current.quit();
+            }
+        } catch (Exception e) {
+            LoggerUtil.error("Error while releasing driver: {}", e.getMessage());
+        } finally {
+            driver.remove();
+        }
+    }
+
     /**
      * Quit WebDriver
      */
     public static void quitDriver() {
         if (driver.get() != null) {
             try {
-                driver.get().quit();
+                if (pool != null && isPoolEnabled()) {
+                    pool.discard(driver.get());
+                } else {
+                    driver.get().quit();
+                }
             } catch (Exception e) {
-                LoggerUtil.error("Error while quitting driver: " + e.getMessage());
+                LoggerUtil.error("Error while quitting driver: {}", e.getMessage());
             } finally {
                 driver.remove();
             }
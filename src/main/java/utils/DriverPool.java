@@ -0,0 +1,224 @@
+package utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * DriverPool - Bounded pool of warm WebDriver sessions
+ * Drivers are leased per test, scrubbed and health-checked on return,
+ * and recycled after a configurable number of uses
+ */
+public class DriverPool {
+    private final Supplier<WebDriver> factory;
+    private final String homeUrl;
+    private final int maxSize;
+    private final int maxUses;
+    private final Semaphore permits;
+    private final BlockingDeque<PooledDriver> idle = new LinkedBlockingDeque<>();
+    private final Map<WebDriver, PooledDriver> leased = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    public DriverPool(Supplier<WebDriver> factory, String homeUrl, int maxSize, int maxUses) {
+        if (maxSize < 1 || maxUses < 1) {
+            throw new IllegalArgumentException("Driver pool size and max uses must be positive");
+        }
+        this.factory = factory;
+        this.homeUrl = homeUrl;
+        this.maxSize = maxSize;
+        this.maxUses = maxUses;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Get the maximum number of browsers this pool keeps open
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Lease a driver parked on the home URL, blocking while all drivers are in use
+     */
+    public WebDriver lease() {
+        if (closed) {
+            throw new IllegalStateException("Driver pool has been shut down");
+        }
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a pooled driver", e);
+        }
+
+        PooledDriver pooled = idle.pollFirst();
+        if (pooled == null) {
+            try {
+                pooled = open();
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+        pooled.uses++;
+        leased.put(pooled.driver, pooled);
+        LoggerUtil.debug("Leased pooled driver (use {} of {})", pooled.uses, maxUses);
+        return pooled.driver;
+    }
+
+    /**
+     * Return a leased driver; it is scrubbed and kept warm, or quit if unhealthy or worn out
+     */
+    public void release(WebDriver driver) {
+        PooledDriver pooled = leased.remove(driver);
+        if (pooled == null) {
+            LoggerUtil.warn("Released driver does not belong to the pool, quitting it");
+            quietlyQuit(driver);
+            return;
+        }
+
+        try {
+            if (closed) {
+                quietlyQuit(pooled.driver);
+            } else if (pooled.uses >= maxUses) {
+                LoggerUtil.info("Recycling pooled driver after {} uses", pooled.uses);
+                quietlyQuit(pooled.driver);
+            } else if (!scrub(pooled)) {
+                LoggerUtil.warn("Pooled driver failed health check, discarding it");
+                quietlyQuit(pooled.driver);
+            } else {
+                idle.offerFirst(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Quit a leased driver outright and free its slot in the pool
+     */
+    public void discard(WebDriver driver) {
+        PooledDriver pooled = leased.remove(driver);
+        quietlyQuit(driver);
+        if (pooled != null) {
+            permits.release();
+        }
+    }
+
+    /**
+     * Start drivers ahead of the first lease so browser startup is paid once per worker
+     */
+    public void warmUp(int count) {
+        int toCreate = Math.min(count, maxSize - idle.size() - leased.size());
+        if (toCreate <= 0) {
+            return;
+        }
+
+        ExecutorService starter = Executors.newFixedThreadPool(toCreate);
+        try {
+            List<Future<PooledDriver>> starting = new ArrayList<>();
+            for (int i = 0; i < toCreate; i++) {
+                starting.add(starter.submit(this::open));
+            }
+            for (Future<PooledDriver> future : starting) {
+                try {
+                    idle.offerLast(future.get());
+                } catch (Exception e) {
+                    LoggerUtil.error("Failed to warm up pooled driver: {}", e.getMessage());
+                }
+            }
+        } finally {
+            starter.shutdown();
+        }
+        LoggerUtil.info("Driver pool warmed up with {} browser(s)", idle.size());
+    }
+
+    /**
+     * Quit all idle drivers and refuse further leases; leased drivers are quit on return
+     */
+    public void shutdown() {
+        closed = true;
+        PooledDriver pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            quietlyQuit(pooled.driver);
+        }
+        LoggerUtil.info("Driver pool shut down");
+    }
+
+    private PooledDriver open() {
+        WebDriver driver = factory.get();
+        try {
+            driver.get(homeUrl);
+            return new PooledDriver(driver, driver.getWindowHandle());
+        } catch (RuntimeException e) {
+            quietlyQuit(driver);
+            throw e;
+        }
+    }
+
+    /**
+     * Reset browser state between leases; returns false when the browser is unresponsive
+     */
+    private boolean scrub(PooledDriver pooled) {
+        WebDriver driver = pooled.driver;
+        try {
+            Set<String> handles = driver.getWindowHandles();
+            if (handles.isEmpty()) {
+                return false;
+            }
+            if (!handles.contains(pooled.mainHandle)) {
+                pooled.mainHandle = handles.iterator().next();
+            }
+            for (String handle : handles) {
+                if (!handle.equals(pooled.mainHandle)) {
+                    driver.switchTo().window(handle);
+                    driver.close();
+                }
+            }
+            driver.switchTo().window(pooled.mainHandle);
+
+            ((JavascriptExecutor) driver).executeScript(
+                    "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+            driver.manage().deleteAllCookies();
+            driver.get(homeUrl);
+            return true;
+        } catch (RuntimeException e) {
+            LoggerUtil.warn("Error while scrubbing pooled driver: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private static void quietlyQuit(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            LoggerUtil.error("Error while quitting pooled driver: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Driver with its usage count and the window it was opened with
+     */
+    private static class PooledDriver {
+        private final WebDriver driver;
+        private String mainHandle;
+        private int uses;
+
+        private PooledDriver(WebDriver driver, String mainHandle) {
+            this.driver = driver;
+            this.mainHandle = mainHandle;
+        }
+    }
+}
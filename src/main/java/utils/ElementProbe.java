@@ -0,0 +1,172 @@
+package utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * ElementProbe - Answers "is it there / is it visible / is it gone" within a caller-chosen budget
+ *
+ * ElementProbe.Result error = ElementProbe.visible(driver, By.cssSelector("p.error"), Duration.ofSeconds(2));
+ *
+ * A probe looks up the locator with findElements, which returns an empty list rather than
+ * throwing, and switches the session's implicit wait off while it polls; otherwise every lookup
+ * of a missing element would sit out implicit.wait before the probe could ask again. The implicit
+ * wait is put back to the configured value afterwards. A probe returns as soon as its condition
+ * holds, and otherwise when the budget is spent; a zero budget checks exactly once. Each result
+ * carries the time the probe took, which is also logged.
+ */
+public class ElementProbe {
+    private static final long POLL_MILLIS = 100;
+
+    /**
+     * Get the default budget: probe.budget.ms
+     */
+    public static Duration defaultBudget() {
+        return Duration.ofMillis(ConfigReader.get().getLong("probe.budget.ms"));
+    }
+
+    /**
+     * Wait up to the budget for at least one element to match
+     */
+    public static Result present(WebDriver driver, By locator, Duration budget) {
+        return probe(driver, locator, budget, Condition.PRESENT);
+    }
+
+    /**
+     * Wait up to the budget for a matching element to be displayed
+     */
+    public static Result visible(WebDriver driver, By locator, Duration budget) {
+        return probe(driver, locator, budget, Condition.VISIBLE);
+    }
+
+    /**
+     * Wait up to the budget for no element to match
+     */
+    public static Result absent(WebDriver driver, By locator, Duration budget) {
+        return probe(driver, locator, budget, Condition.ABSENT);
+    }
+
+    /**
+     * Run an action with the implicit wait switched off, restoring the configured wait afterwards
+     */
+    public static <T> T withoutImplicitWait(WebDriver driver, Supplier<T> action) {
+        WebDriver.Timeouts timeouts = driver.manage().timeouts();
+        timeouts.implicitlyWait(Duration.ZERO);
+        try {
+            return action.get();
+        } finally {
+            timeouts.implicitlyWait(ConfigReader.get().getImplicitWait());
+        }
+    }
+
+    private static Result probe(WebDriver driver, By locator, Duration budget, Condition condition) {
+        long start = System.nanoTime();
+        long deadline = start + budget.toNanos();
+        Result result = withoutImplicitWait(driver, () -> {
+            while (true) {
+                List<WebElement> found = driver.findElements(locator);
+                boolean visible = anyDisplayed(found);
+                if (condition.isMet(found.size(), visible) || System.nanoTime() >= deadline) {
+                    return new Result(locator, condition, found.size(), visible, System.nanoTime() - start);
+                }
+                sleep(Math.min(POLL_MILLIS, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()) + 1));
+            }
+        });
+        LoggerUtil.info(result::toString);
+        return result;
+    }
+
+    private static boolean anyDisplayed(List<WebElement> found) {
+        for (WebElement element : found) {
+            try {
+                if (element.isDisplayed()) {
+                    return true;
+                }
+            } catch (StaleElementReferenceException e) {
+                // Replaced while we looked; the next poll sees the new element
+            }
+        }
+        return false;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while probing for an element", e);
+        }
+    }
+
+    private enum Condition {
+        PRESENT, VISIBLE, ABSENT;
+
+        boolean isMet(int count, boolean visible) {
+            switch (this) {
+                case PRESENT:
+                    return count > 0;
+                case VISIBLE:
+                    return visible;
+                case ABSENT:
+                default:
+                    return count == 0;
+            }
+        }
+    }
+
+    /**
+     * What a probe saw when it returned, and how long it took
+     */
+    public static class Result {
+        private final By locator;
+        private final Condition condition;
+        private final int matches;
+        private final boolean visible;
+        private final long elapsedNanos;
+
+        private Result(By locator, Condition condition, int matches, boolean visible, long elapsedNanos) {
+            this.locator = locator;
+            this.condition = condition;
+            this.matches = matches;
+            this.visible = visible;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Check if the probed condition held before the budget ran out
+         */
+        public boolean isSatisfied() {
+            return condition.isMet(matches, visible);
+        }
+
+        public boolean isPresent() {
+            return matches > 0;
+        }
+
+        public boolean isVisible() {
+            return visible;
+        }
+
+        public int getMatchCount() {
+            return matches;
+        }
+
+        public Duration getElapsed() {
+            return Duration.ofNanos(elapsedNanos);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Probe %s %s: %s (%d match(es), visible=%s) in %d ms",
+                    condition.name().toLowerCase(), locator, isSatisfied() ? "yes" : "no",
+                    matches, visible, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        }
+    }
+}
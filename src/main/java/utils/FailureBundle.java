@@ -0,0 +1,259 @@
+package utils;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.LogType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * FailureBundle - Evidence captured from the browser when a test fails
+ * Screenshot, DOM source, browser console log, URL and cookies are requested from the driver in
+ * parallel, each within failure.bundle.budget.ms, so a hung browser delays teardown by at most
+ * the budget; parts that miss it are recorded as timed out. A timed-out part keeps running on
+ * its capture thread, so the caller must then quit the driver rather than hand it to another
+ * test (see Capture.isComplete). The last WebDriver commands (CommandHistory) and the failure
+ * itself are added, and the bundle is zipped to failure.bundle.dir by a bounded background
+ * writer. Call flush() before reading the archives.
+ */
+public class FailureBundle {
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss_SSS");
+    private static final long FLUSH_TIMEOUT_SECONDS = 60;
+
+    private static final Set<Future<?>> pending = ConcurrentHashMap.newKeySet();
+    private static final ExecutorService capturers = Executors.newCachedThreadPool(daemon("failure-capture"));
+    private static final ThreadPoolExecutor writer = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(16), daemon("failure-bundle-writer"), new ThreadPoolExecutor.CallerRunsPolicy());
+
+    static {
+        writer.allowCoreThreadTimeOut(true);
+        Runtime.getRuntime().addShutdownHook(new Thread(FailureBundle::flush, "failure-bundle-flush"));
+    }
+
+    /**
+     * Check if failure bundles are captured
+     */
+    public static boolean isEnabled() {
+        return ConfigReader.get().isFailureBundleEnabled();
+    }
+
+    /**
+     * Capture the bundle for a failed test and queue it for writing
+     */
+    public static Capture capture(WebDriver driver, String testName, Throwable failure) {
+        long budget = ConfigReader.get().getLong("failure.bundle.budget.ms");
+        Instant capturedAt = Instant.now();
+
+        CompletableFuture<byte[]> screenshot = part(budget,
+                () -> ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES));
+        CompletableFuture<byte[]> dom = part(budget, () -> text(driver.getPageSource()));
+        CompletableFuture<byte[]> console = part(budget, () -> consoleLog(driver));
+        CompletableFuture<byte[]> url = part(budget, () -> text(driver.getCurrentUrl()));
+        CompletableFuture<byte[]> cookies = part(budget, () -> cookies(driver.manage().getCookies()));
+
+        StringBuilder commands = new StringBuilder();
+        for (CommandHistory.Entry entry : CommandHistory.snapshot()) {
+            commands.append(entry).append(System.lineSeparator());
+        }
+
+        Map<String, CompletableFuture<byte[]>> parts = new LinkedHashMap<>();
+        parts.put("screenshot.png", screenshot);
+        parts.put("dom.html", dom);
+        parts.put("console.log", console);
+        parts.put("url.txt", url);
+        parts.put("cookies.txt", cookies);
+
+        // Every part is already bounded by the budget, so this waits at most that long
+        CompletableFuture.allOf(parts.values().toArray(new CompletableFuture<?>[0]))
+                .exceptionally(e -> null).join();
+
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        boolean complete = true;
+        StringBuilder summary = new StringBuilder()
+                .append("test: ").append(testName).append(System.lineSeparator())
+                .append("captured: ").append(capturedAt).append(System.lineSeparator())
+                .append("budget: ").append(budget).append(" ms").append(System.lineSeparator());
+        for (Map.Entry<String, CompletableFuture<byte[]>> part : parts.entrySet()) {
+            try {
+                entries.put(part.getKey(), part.getValue().join());
+                summary.append(part.getKey()).append(": ok").append(System.lineSeparator());
+            } catch (Exception e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                complete &= !(cause instanceof TimeoutException);
+                summary.append(part.getKey()).append(": ")
+                        .append(cause instanceof TimeoutException ? "timed out" : "failed - " + cause)
+                        .append(System.lineSeparator());
+            }
+        }
+        entries.put("commands.txt", text(commands.toString()));
+        entries.put("failure.txt", text(stackTrace(failure)));
+        entries.put("summary.txt", text(summary.toString()));
+
+        // Keep the screenshot in the shared store as well, so screenshots/ stays complete
+        if (entries.containsKey("screenshot.png")) {
+            ScreenshotUtils.saveScreenshot(entries.get("screenshot.png"), testName);
+        }
+
+        Path archive = Paths.get(ConfigReader.getProperty("failure.bundle.dir"),
+                testName + "_" + LocalDateTime.now().format(TIMESTAMP) + ".zip");
+        FutureTask<Void> write = new FutureTask<Void>(() -> write(archive, entries), null) {
+            @Override
+            protected void done() {
+                pending.remove(this);
+            }
+        };
+        pending.add(write);
+        writer.execute(write);
+        return new Capture(archive.toString(), complete);
+    }
+
+    /**
+     * Wait until every queued bundle is written
+     */
+    public static void flush() {
+        for (Future<?> write : pending) {
+            try {
+                write.get(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException | TimeoutException e) {
+                LoggerUtil.error("Failure bundle write did not complete: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static CompletableFuture<byte[]> part(long budgetMillis, Supplier<byte[]> capture) {
+        return CompletableFuture.supplyAsync(capture, capturers).orTimeout(budgetMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static byte[] consoleLog(WebDriver driver) {
+        StringBuilder log = new StringBuilder();
+        for (LogEntry entry : driver.manage().logs().get(LogType.BROWSER)) {
+            log.append(Instant.ofEpochMilli(entry.getTimestamp())).append(' ').append(entry.getLevel())
+                    .append(' ').append(entry.getMessage()).append(System.lineSeparator());
+        }
+        return text(log.toString());
+    }
+
+    private static byte[] cookies(Set<Cookie> cookies) {
+        StringBuilder text = new StringBuilder();
+        for (Cookie cookie : cookies) {
+            // Values are credentials; a prefix is enough to tell sessions apart
+            text.append(cookie.getName()).append('=').append(mask(cookie.getValue()))
+                    .append("; domain=").append(cookie.getDomain())
+                    .append("; path=").append(cookie.getPath())
+                    .append("; expiry=").append(cookie.getExpiry())
+                    .append(System.lineSeparator());
+        }
+        return text(text.toString());
+    }
+
+    private static void write(Path archive, Map<String, byte[]> entries) {
+        Path temp = archive.resolveSibling(archive.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(archive.getParent());
+            try (OutputStream file = Files.newOutputStream(temp);
+                 ZipOutputStream zip = new ZipOutputStream(file)) {
+                for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                    // PNG is already compressed; deflating it again only costs time
+                    zip.setLevel(entry.getKey().endsWith(".png") ? Deflater.NO_COMPRESSION : Deflater.DEFAULT_COMPRESSION);
+                    zip.putNextEntry(new ZipEntry(entry.getKey()));
+                    zip.write(entry.getValue());
+                    zip.closeEntry();
+                }
+            }
+            Files.move(temp, archive, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            LoggerUtil.info("Failure bundle written: {}", archive);
+        } catch (IOException e) {
+            LoggerUtil.error("Failed to write failure bundle {}: {}", archive, e.getMessage());
+        }
+    }
+
+    private static String stackTrace(Throwable failure) {
+        if (failure == null) {
+            return "";
+        }
+        StringWriter trace = new StringWriter();
+        failure.printStackTrace(new PrintWriter(trace));
+        return trace.toString();
+    }
+
+    private static byte[] text(String value) {
+        return (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Keep only the first 4 characters of a secret, enough to tell values apart
+     */
+    static String mask(String secret) {
+        return secret.length() > 4 ? secret.substring(0, 4) + "..." : secret;
+    }
+
+    /**
+     * Where a bundle is written, and whether every part finished within the budget
+     */
+    public static class Capture {
+        private final String archive;
+        private final boolean complete;
+
+        private Capture(String archive, boolean complete) {
+            this.archive = archive;
+            this.complete = complete;
+        }
+
+        public String getArchive() {
+            return archive;
+        }
+
+        /**
+         * False when a part timed out and may still be issuing commands to the driver
+         */
+        public boolean isComplete() {
+            return complete;
+        }
+    }
+}
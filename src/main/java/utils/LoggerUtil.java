@@ -2,13 +2,27 @@ package utils;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+
+import java.util.function.Supplier;
 
 /**
  * LoggerUtil - Handles logging throughout the framework
+ * Prefer the parameterized ("Clicked on element: {}") or Supplier overloads on hot paths:
+ * the message is only built when the level is enabled, and fixed-arity parameters avoid
+ * allocating a varargs array. Loggers are asynchronous (see log4j2.component.properties);
+ * messages are still formatted on the calling thread, so parameters may be live objects.
  */
 public class LoggerUtil {
     private static final Logger logger = LogManager.getLogger(LoggerUtil.class);
 
+    // Closing line of a test's buffered log (see TestLogAppender)
+    public static final Marker TEST_FINISHED = MarkerManager.getMarker("TEST_FINISHED");
+    public static final Marker TEST_PASSED = MarkerManager.getMarker("TEST_PASSED").setParents(TEST_FINISHED);
+    public static final Marker TEST_FAILED = MarkerManager.getMarker("TEST_FAILED").setParents(TEST_FINISHED);
+    public static final Marker TEST_SKIPPED = MarkerManager.getMarker("TEST_SKIPPED").setParents(TEST_FINISHED);
+
     /**
      * Log info level message
      */
@@ -16,6 +30,36 @@ public class LoggerUtil {
         logger.info(message);
     }
 
+    /**
+     * Log info level message with one {} parameter
+     */
+    public static void info(String format, Object param) {
+        logger.info(format, param);
+    }
+
+    /**
+     * Log info level message with two {} parameters
+     */
+    public static void info(String format, Object param1, Object param2) {
+        logger.info(format, param1, param2);
+    }
+
+    /**
+     * Log info level message with {} parameters
+     */
+    public static void info(String format, Object... params) {
+        logger.info(format, params);
+    }
+
+    /**
+     * Log info level message built only when info is enabled
+     */
+    public static void info(Supplier<String> message) {
+        if (logger.isInfoEnabled()) {
+            logger.info(message.get());
+        }
+    }
+
     /**
      * Log debug level message
      */
@@ -23,6 +67,29 @@ public class LoggerUtil {
         logger.debug(message);
     }
 
+    /**
+     * Log debug level message with one {} parameter
+     */
+    public static void debug(String format, Object param) {
+        logger.debug(format, param);
+    }
+
+    /**
+     * Log debug level message with two {} parameters
+     */
+    public static void debug(String format, Object param1, Object param2) {
+        logger.debug(format, param1, param2);
+    }
+
+    /**
+     * Log debug level message built only when debug is enabled
+     */
+    public static void debug(Supplier<String> message) {
+        if (logger.isDebugEnabled()) {
+            logger.debug(message.get());
+        }
+    }
+
     /**
      * Log warning level message
      */
@@ -30,6 +97,20 @@ public class LoggerUtil {
         logger.warn(message);
     }
 
+    /**
+     * Log warning level message with one {} parameter
+     */
+    public static void warn(String format, Object param) {
+        logger.warn(format, param);
+    }
+
+    /**
+     * Log warning level message with two {} parameters
+     */
+    public static void warn(String format, Object param1, Object param2) {
+        logger.warn(format, param1, param2);
+    }
+
     /**
      * Log error level message
      */
@@ -37,6 +118,41 @@ public class LoggerUtil {
         logger.error(message);
     }
 
+    /**
+     * Log error level message with one {} parameter
+     */
+    public static void error(String format, Object param) {
+        logger.error(format, param);
+    }
+
+    /**
+     * Log error level message with two {} parameters
+     */
+    public static void error(String format, Object param1, Object param2) {
+        logger.error(format, param1, param2);
+    }
+
+    /**
+     * Log a passed test's summary line; its buffered log is discarded
+     */
+    public static void testPassed(String message) {
+        logger.info(TEST_PASSED, message);
+    }
+
+    /**
+     * Log a failed test's summary line; its buffered log is written to its own file
+     */
+    public static void testFailed(String message) {
+        logger.error(TEST_FAILED, message);
+    }
+
+    /**
+     * Log a skipped test's summary line; its buffered log is written to its own file
+     */
+    public static void testSkipped(String message) {
+        logger.warn(TEST_SKIPPED, message);
+    }
+
     /**
      * Log fatal level message
      */
@@ -1,50 +1,113 @@
 package utils;
 
-import org.apache.commons.io.FileUtils;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
 
-import java.io.File;
 import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.nio.file.Paths;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * ScreenshotUtils - Captures and saves screenshots
+ * The browser is asked for PNG bytes, which are hashed on the calling thread and stored in the
+ * content-addressed ArtifactStore under screenshot.dir by a small background writer pool, so
+ * teardown returns as soon as the capture itself is done. The writer queue is bounded: when it
+ * is full the calling thread stores the file itself, which throttles failure storms instead of
+ * buffering without limit. Call flush() before reading the files, e.g. at suite end.
  */
 public class ScreenshotUtils {
-    private static final String SCREENSHOT_DIR = "screenshots/";
+    private static final long FLUSH_TIMEOUT_SECONDS = 60;
+
+    private static final Set<Future<?>> pending = ConcurrentHashMap.newKeySet();
+    private static final ThreadPoolExecutor writer = createWriter();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(ScreenshotUtils::flush, "screenshot-writer-flush"));
+    }
 
     /**
-     * Capture screenshot and save with timestamp
+     * Capture screenshot and queue it for the artifact store
      */
     public static String captureScreenshot(WebDriver driver, String testName) {
-        // Create screenshots directory if not exists
-        File screenshotDir = new File(SCREENSHOT_DIR);
-        if (!screenshotDir.exists()) {
-            screenshotDir.mkdirs();
-        }
+        byte[] png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        return saveScreenshot(png, testName);
+    }
 
-        // Generate timestamp
-        String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
-        String screenshotName = testName + "_" + timestamp + ".png";
-        String screenshotPath = SCREENSHOT_DIR + screenshotName;
-
-        try {
-            // Capture screenshot
-            TakesScreenshot ts = (TakesScreenshot) driver;
-            File source = ts.getScreenshotAs(OutputType.FILE);
-            File destination = new File(screenshotPath);
-
-            // Copy file to destination
-            FileUtils.copyFile(source, destination);
-            LoggerUtil.info("Screenshot saved successfully: " + screenshotPath);
-            
-            return screenshotPath;
-        } catch (IOException e) {
-            LoggerUtil.error("Failed to capture screenshot: " + e.getMessage());
-            return null;
+    /**
+     * Queue already captured PNG bytes for storing; returns the path the image will have
+     */
+    public static String saveScreenshot(byte[] png, String testName) {
+        ArtifactStore store = getStore();
+        String sha256 = ArtifactStore.sha256(png);
+        FutureTask<Void> write = new FutureTask<Void>(() -> {
+            try {
+                store.store(png, sha256, testName);
+            } catch (IOException e) {
+                LoggerUtil.error("Failed to save screenshot: {}", e.getMessage());
+            }
+        }, null) {
+            @Override
+            protected void done() {
+                pending.remove(this);
+            }
+        };
+        pending.add(write);
+        writer.execute(write);
+        return store.objectPath(sha256).toString();
+    }
+
+    /**
+     * Wait until every queued screenshot is stored, then apply the store's eviction policy
+     */
+    public static void flush() {
+        for (Future<?> write : pending) {
+            try {
+                write.get(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException | TimeoutException e) {
+                LoggerUtil.error("Screenshot write did not complete: {}", e.getMessage());
+            }
         }
+        ArtifactStore.evictOpenStores();
+    }
+
+    /**
+     * Get the screenshot directory from config
+     */
+    public static String getScreenshotDir() {
+        return ConfigReader.getProperty("screenshot.dir");
+    }
+
+    /**
+     * Get the artifact store for the configured screenshot directory
+     */
+    public static ArtifactStore getStore() {
+        return ArtifactStore.at(Paths.get(getScreenshotDir()));
+    }
+
+    private static ThreadPoolExecutor createWriter() {
+        int threads = ConfigReader.get().getInt("screenshot.writer.threads");
+        int queueSize = ConfigReader.get().getInt("screenshot.writer.queue");
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "screenshot-writer-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 }
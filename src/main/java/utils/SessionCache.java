@@ -0,0 +1,64 @@
+package utils;
+
+import org.openqa.selenium.Cookie;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * SessionCache - Authenticated session cookies captured after a UI login, kept per user per worker thread
+ * Later tests on the same worker inject the cookies instead of driving the login form again
+ */
+public class SessionCache {
+    private static final String SESSION_COOKIE = "JSESSIONID";
+    private static final ThreadLocal<Map<String, Set<Cookie>>> snapshots = ThreadLocal.withInitial(HashMap::new);
+
+    /**
+     * Check if session reuse is enabled
+     */
+    public static boolean isEnabled() {
+        return ConfigReader.get().isSessionCacheEnabled();
+    }
+
+    /**
+     * Get the cached cookies for a user, or an empty set when there is no usable snapshot
+     */
+    public static Set<Cookie> get(String username) {
+        Set<Cookie> cookies = snapshots.get().get(username);
+        if (cookies == null) {
+            return Collections.emptySet();
+        }
+        Date now = new Date();
+        for (Cookie cookie : cookies) {
+            if (cookie.getExpiry() != null && cookie.getExpiry().before(now)) {
+                invalidate(username);
+                return Collections.emptySet();
+            }
+        }
+        return cookies;
+    }
+
+    /**
+     * Store a user's session cookies; ignored when no session cookie is present
+     */
+    public static void store(String username, Set<Cookie> cookies) {
+        boolean hasSession = cookies.stream().anyMatch(cookie -> SESSION_COOKIE.equalsIgnoreCase(cookie.getName()));
+        if (!hasSession) {
+            LoggerUtil.warn("No {} cookie after login for {}, session not cached", SESSION_COOKIE, username);
+            return;
+        }
+        snapshots.get().put(username, Collections.unmodifiableSet(new HashSet<>(cookies)));
+        LoggerUtil.info("Cached session for user: {}", username);
+    }
+
+    /**
+     * Forget a user's snapshot, e.g. after it was found to be expired
+     */
+    public static void invalidate(String username) {
+        snapshots.get().remove(username);
+    }
+}
@@ -6,10 +6,13 @@ import java.util.Properties;
 
 /**
  * TestDataReader - Reads test data from properties file
+ * Values may contain ${unique.*} templates (token, username, payee, ssn, account, run), which
+ * are filled from UniqueDataGenerator on every read, e.g. registration.username=${unique.username}
  */
 public class TestDataReader {
     private static Properties testData;
     private static final String TEST_DATA_FILE = "src/test/resources/testdata/testdata.properties";
+    private static final String TEMPLATE_START = "${unique.";
 
     static {
         loadTestData();
@@ -37,10 +40,33 @@ public class TestDataReader {
     public static String getData(String key) {
         String value = testData.getProperty(key);
         if (value == null) {
-            LoggerUtil.warn("Test data not found for key: " + key);
+            LoggerUtil.warn("Test data not found for key: {}", key);
             return "";
         }
-        return value;
+        return value.contains(TEMPLATE_START) ? fillTemplates(key, value) : value;
+    }
+
+    /**
+     * Replace each ${unique.name} in a value with a freshly generated one
+     */
+    private static String fillTemplates(String key, String value) {
+        StringBuilder filled = new StringBuilder(value.length() + 16);
+        int from = 0;
+        int start;
+        while ((start = value.indexOf(TEMPLATE_START, from)) >= 0) {
+            int end = value.indexOf('}', start);
+            if (end < 0) {
+                break;
+            }
+            String name = value.substring(start + TEMPLATE_START.length(), end);
+            String generated = UniqueDataGenerator.generate(name);
+            if (generated == null) {
+                throw new RuntimeException("Unknown template ${unique." + name + "} in test data key: " + key);
+            }
+            filled.append(value, from, start).append(generated);
+            from = end + 1;
+        }
+        return filled.append(value, from, value.length()).toString();
     }
 
     /**
@@ -106,6 +132,10 @@ public class TestDataReader {
         return getData("registration.ssn");
     }
 
+    public static String getRegistrationUsername() {
+        return getData("registration.username");
+    }
+
     /**
      * Get transfer funds data
      */
@@ -0,0 +1,148 @@
+package utils;
+
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Core;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.StringLayout;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginElement;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TestLogAppender - Keeps each running test's log lines in memory and writes them out only if
+ * the test fails or is skipped
+ *
+ * Lines are keyed by the testId ThreadContext entry that BaseTest sets for every test
+ * invocation, and held in a ring of at most maxLines lines per test (the oldest are dropped
+ * first). The test's final LoggerUtil.testPassed/testFailed/testSkipped line closes the ring:
+ * on failure or skip the ring is written to directory/<testId>.log, on a pass it is discarded.
+ * The closing line travels through the same asynchronous queue as the test's other lines, so
+ * every line the test logged has reached the ring before it is written. Events without a
+ * testId (suite setup, background writers) are ignored here; TestLogFilter keeps the buffered
+ * lines out of the console and automation.log.
+ *
+ * &lt;TestLogBuffer name="TestLogs" directory="logs/tests" maxLines="5000"&gt;
+ *     &lt;PatternLayout pattern="..."/&gt;
+ * &lt;/TestLogBuffer&gt;
+ */
+@Plugin(name = "TestLogBuffer", category = Core.CATEGORY_NAME, elementType = Appender.ELEMENT_TYPE, printObject = true)
+public final class TestLogAppender extends AbstractAppender {
+    public static final String TEST_ID_KEY = "testId";
+
+    private static volatile Path directory = Paths.get("logs", "tests");
+
+    private final int maxLines;
+    private final Map<String, Ring> rings = new ConcurrentHashMap<>();
+
+    private TestLogAppender(String name, Filter filter, StringLayout layout, Path directory, int maxLines) {
+        super(name, filter, layout, true, Property.EMPTY_ARRAY);
+        TestLogAppender.directory = directory;
+        this.maxLines = maxLines;
+    }
+
+    @PluginFactory
+    public static TestLogAppender createAppender(@PluginAttribute("name") String name,
+                                                 @PluginAttribute(value = "directory", defaultString = "logs/tests") String directory,
+                                                 @PluginAttribute(value = "maxLines", defaultInt = 5000) int maxLines,
+                                                 @PluginElement("Layout") Layout<? extends Serializable> layout,
+                                                 @PluginElement("Filter") Filter filter) {
+        if (name == null) {
+            LOGGER.error("No name provided for TestLogBuffer");
+            return null;
+        }
+        StringLayout stringLayout = layout instanceof StringLayout
+                ? (StringLayout) layout : PatternLayout.createDefaultLayout();
+        return new TestLogAppender(name, filter, stringLayout, Paths.get(directory), Math.max(1, maxLines));
+    }
+
+    /**
+     * Get the file a failed or skipped test's log is written to
+     */
+    public static Path logFileFor(String testId) {
+        return directory.resolve(testId.replaceAll("[^A-Za-z0-9._-]", "_") + ".log");
+    }
+
+    @Override
+    public void append(LogEvent event) {
+        String testId = event.getContextData().getValue(TEST_ID_KEY);
+        if (testId == null) {
+            return;
+        }
+        String line = ((StringLayout) getLayout()).toSerializable(event);
+        Marker marker = event.getMarker();
+        if (marker != null && marker.isInstanceOf(LoggerUtil.TEST_FINISHED)) {
+            Ring ring = rings.remove(testId);
+            if (!marker.isInstanceOf(LoggerUtil.TEST_PASSED)) {
+                if (ring == null) {
+                    ring = new Ring(maxLines);
+                }
+                ring.add(line);
+                write(testId, ring);
+            }
+            return;
+        }
+        rings.computeIfAbsent(testId, id -> new Ring(maxLines)).add(line);
+    }
+
+    private void write(String testId, Ring ring) {
+        Path file = logFileFor(testId);
+        try {
+            Files.createDirectories(file.getParent());
+            try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                ring.writeTo(out);
+            }
+        } catch (IOException e) {
+            error("Failed to write test log " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * The newest lines of one test, oldest first
+     */
+    private static final class Ring {
+        private final int capacity;
+        private final ArrayDeque<String> lines;
+        private long dropped;
+
+        private Ring(int capacity) {
+            this.capacity = capacity;
+            this.lines = new ArrayDeque<>(Math.min(capacity, 256));
+        }
+
+        private synchronized void add(String line) {
+            if (lines.size() == capacity) {
+                lines.pollFirst();
+                dropped++;
+            }
+            lines.addLast(line);
+        }
+
+        private synchronized void writeTo(BufferedWriter out) throws IOException {
+            if (dropped > 0) {
+                out.write("... " + dropped + " earlier line(s) dropped (maxLines=" + capacity + ") ...");
+                out.newLine();
+            }
+            for (String line : lines) {
+                out.write(line);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package utils;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.filter.AbstractFilter;
+
+/**
+ * TestLogFilter - Keeps lines logged inside a test out of the shared console and file logs
+ * A line that carries a testId (see TestLogAppender) is denied unless it is at least as severe
+ * as level (default WARN) or is the test's closing summary line; lines outside tests pass.
+ * Attach it to the shared appenders; TestLogAppender keeps the denied lines per test.
+ *
+ * &lt;Console name="Console"&gt;&lt;TestLogFilter level="WARN"/&gt;...&lt;/Console&gt;
+ */
+@Plugin(name = "TestLogFilter", category = Node.CATEGORY, elementType = Filter.ELEMENT_TYPE, printObject = true)
+public final class TestLogFilter extends AbstractFilter {
+    private final Level level;
+
+    private TestLogFilter(Level level) {
+        super(Result.NEUTRAL, Result.DENY);
+        this.level = level;
+    }
+
+    @PluginFactory
+    public static TestLogFilter createFilter(@PluginAttribute(value = "level", defaultString = "WARN") String level) {
+        return new TestLogFilter(Level.toLevel(level, Level.WARN));
+    }
+
+    @Override
+    public Result filter(LogEvent event) {
+        if (event.getContextData().getValue(TestLogAppender.TEST_ID_KEY) == null
+                || event.getLevel().isMoreSpecificThan(level)) {
+            return onMatch;
+        }
+        Marker marker = event.getMarker();
+        return marker != null && marker.isInstanceOf(LoggerUtil.TEST_FINISHED) ? onMatch : onMismatch;
+    }
+
+    @Override
+    public String toString() {
+        return "TestLogFilter(level=" + level + ")";
+    }
+}
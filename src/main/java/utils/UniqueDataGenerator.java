@@ -0,0 +1,156 @@
+package utils;
+
+import java.security.SecureRandom;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * UniqueDataGenerator - Identities that never collide across threads, shards and runs
+ * (the 9-digit ssn() and accountReference() values only within one run, see ssn())
+ *
+ * Every value is built from three parts:
+ *   run id    - data.run.id (ShardRunner hands its own to every shard), otherwise the start
+ *               second plus random characters; a configured id should keep the 9-character width
+ *   worker id - the shard index and a slot handed to each thread on first use
+ *   counter   - per worker, so generating needs no lock, no CAS and no shared Random
+ *
+ * In token() the run id has a fixed width and the shard and worker ids are written in base 36
+ * behind a one-character length, e.g. "t3k3x9a7p" + "10" + "11" + "1c", so the text can be split
+ * back into its parts and no two (run, shard, worker, counter) combinations produce the same token.
+ */
+public class UniqueDataGenerator {
+    private static final int RUN_TIME_CHARS = 6;
+    private static final int RUN_RANDOM_CHARS = 3;
+
+    private static final String RUN_ID = resolveRunId();
+    private static final int SHARD_INDEX = Integer.getInteger("shard.index", 0);
+    private static final String SHARD = lengthPrefixed(SHARD_INDEX);
+    private static final AtomicInteger workerSlots = new AtomicInteger();
+    private static final ThreadLocal<Worker> worker = ThreadLocal.withInitial(Worker::new);
+
+    /**
+     * Get the id shared by every value of this run
+     */
+    public static String getRunId() {
+        return RUN_ID;
+    }
+
+    /**
+     * Get a new lower-case alphanumeric token, unique across threads, shards and runs
+     */
+    public static String token() {
+        Worker current = worker.get();
+        return RUN_ID + SHARD + current.id + Long.toString(++current.counter, Character.MAX_RADIX);
+    }
+
+    /**
+     * Get a new username, e.g. "ut3k3x9a7p10111c"
+     */
+    public static String username() {
+        return username("u");
+    }
+
+    /**
+     * Get a new username with the given prefix
+     */
+    public static String username(String prefix) {
+        return prefix + token();
+    }
+
+    /**
+     * Get a new payee name, e.g. "Payee t3k3x9a7p10111c"
+     */
+    public static String payeeName() {
+        return "Payee " + token();
+    }
+
+    /**
+     * Get a new 9-digit SSN: shard index mod 10, worker slot mod 100, then the worker's counter
+     * mod 1,000,000. Unique within a run for up to 10 shards, 100 workers and a million values per
+     * worker; nine digits leave no room for the run id, so values repeat across runs (SSNs are
+     * not required to be unique by the application)
+     */
+    public static String ssn() {
+        String digits = numeric();
+        return digits.substring(0, 3) + "-" + digits.substring(3, 5) + "-" + digits.substring(5);
+    }
+
+    /**
+     * Get a new 9-digit account reference, with the same uniqueness as ssn()
+     */
+    public static String accountReference() {
+        return numeric();
+    }
+
+    /**
+     * Resolve a unique.* template name, e.g. "username" for ${unique.username}; null if unknown
+     */
+    public static String generate(String name) {
+        switch (name) {
+            case "token":
+                return token();
+            case "username":
+                return username();
+            case "payee":
+                return payeeName();
+            case "ssn":
+                return ssn();
+            case "account":
+                return accountReference();
+            case "run":
+                return getRunId();
+            default:
+                return null;
+        }
+    }
+
+    private static String numeric() {
+        Worker current = worker.get();
+        long counter = ++current.counter % 1_000_000;
+        return String.format(Locale.ROOT, "%01d%02d%06d", SHARD_INDEX % 10, current.slot % 100, counter);
+    }
+
+    private static String resolveRunId() {
+        String configured = ConfigReader.getProperty("data.run.id", "");
+        if (!configured.isEmpty()) {
+            return configured.toLowerCase(Locale.ROOT);
+        }
+        long seconds = System.currentTimeMillis() / 1000;
+        StringBuilder id = new StringBuilder(fixed(seconds, RUN_TIME_CHARS));
+        SecureRandom random = new SecureRandom();
+        for (int i = 0; i < RUN_RANDOM_CHARS; i++) {
+            id.append(Character.forDigit(random.nextInt(Character.MAX_RADIX), Character.MAX_RADIX));
+        }
+        return id.toString();
+    }
+
+    /**
+     * The low digits of value in base 36, left-padded to exactly width characters
+     */
+    private static String fixed(long value, int width) {
+        long modulus = (long) Math.pow(Character.MAX_RADIX, width);
+        String digits = Long.toString(Math.floorMod(value, modulus), Character.MAX_RADIX);
+        StringBuilder padded = new StringBuilder(width);
+        for (int i = digits.length(); i < width; i++) {
+            padded.append('0');
+        }
+        return padded.append(digits).toString();
+    }
+
+    /**
+     * A base 36 number behind its own length, so a sequence of these can be split unambiguously
+     */
+    private static String lengthPrefixed(long value) {
+        String digits = Long.toString(value, Character.MAX_RADIX);
+        return Character.forDigit(digits.length(), Character.MAX_RADIX) + digits;
+    }
+
+    /**
+     * One thread's slot and counter; only ever touched by its own thread
+     */
+    private static final class Worker {
+        private final int slot = workerSlots.getAndIncrement();
+        private final String id = lengthPrefixed(slot);
+        private long counter;
+    }
+}
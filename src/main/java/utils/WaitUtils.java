@@ -6,13 +6,12 @@ import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
 import java.time.Duration;
+import java.util.function.Function;
 
 /**
  * WaitUtils - Custom wait utilities
  */
 public class WaitUtils {
-    private static final int DEFAULT_TIMEOUT = 15;
-
     /**
      * Wait for element to be visible
      */
@@ -25,7 +24,7 @@ public class WaitUtils {
      * Wait for element to be visible with default timeout
      */
     public static void waitForVisibility(WebDriver driver, WebElement element) {
-        waitForVisibility(driver, element, DEFAULT_TIMEOUT);
+        adaptive(driver, "visible", ExpectedConditions.visibilityOf(element));
     }
 
     /**
@@ -40,7 +39,7 @@ public class WaitUtils {
      * Wait for element to be clickable with default timeout
      */
     public static void waitForClickability(WebDriver driver, WebElement element) {
-        waitForClickability(driver, element, DEFAULT_TIMEOUT);
+        adaptive(driver, "clickable", ExpectedConditions.elementToBeClickable(element));
     }
 
     /**
@@ -51,6 +50,13 @@ public class WaitUtils {
         wait.until(ExpectedConditions.titleContains(title));
     }
 
+    /**
+     * Wait within the calling action's adaptive timeout (explicit.wait until it has history)
+     */
+    private static <T> T adaptive(WebDriver driver, String kind, Function<? super WebDriver, T> condition) {
+        return AdaptiveTimeouts.until(kind, timeout -> new WebDriverWait(driver, timeout).until(condition));
+    }
+
     /**
      * Custom sleep (use sparingly)
      */
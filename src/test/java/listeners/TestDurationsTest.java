@@ -0,0 +1,93 @@
+package listeners;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * TestDurationsTest - Unit tests for the duration history and its moving average
+ */
+public class TestDurationsTest {
+
+    @Test(description = "First sample is stored as is")
+    public void testFirstSampleStoredUnchanged() throws IOException {
+        TestDurations durations = empty();
+        durations.merge("smoke.SmokeTests.testValidLogin", 4000);
+
+        Assert.assertEquals(durations.get("smoke.SmokeTests.testValidLogin"), OptionalLong.of(4000));
+    }
+
+    @Test(description = "Later samples are blended half and half into the history")
+    public void testSamplesBlendedWithMovingAverage() throws IOException {
+        TestDurations durations = empty();
+        durations.merge("a.B.c", 4000);
+        durations.merge("a.B.c", 8000);
+        Assert.assertEquals(durations.get("a.B.c"), OptionalLong.of(6000));
+
+        durations.merge("a.B.c", 1000);
+        Assert.assertEquals(durations.get("a.B.c"), OptionalLong.of(3500));
+    }
+
+    @Test(description = "One outlier moves the estimate only part of the way")
+    public void testOutlierDampened() throws IOException {
+        TestDurations durations = empty();
+        for (int i = 0; i < 5; i++) {
+            durations.merge("a.B.c", 1000);
+        }
+        durations.merge("a.B.c", 61000);
+
+        Assert.assertEquals(durations.get("a.B.c"), OptionalLong.of(31000));
+        durations.merge("a.B.c", 1000);
+        Assert.assertEquals(durations.get("a.B.c"), OptionalLong.of(16000));
+    }
+
+    @Test(description = "Merging a shard's file blends each of its entries")
+    public void testMergeAllBlendsOtherHistory() throws IOException {
+        TestDurations history = empty();
+        history.merge("a.B.c", 2000);
+        TestDurations shard = empty();
+        shard.merge("a.B.c", 4000);
+        shard.merge("a.B.d", 500);
+
+        history.mergeAll(shard);
+
+        Assert.assertEquals(history.get("a.B.c"), OptionalLong.of(3000));
+        Assert.assertEquals(history.get("a.B.d"), OptionalLong.of(500));
+    }
+
+    @Test(description = "Class totals and the mean cover only recorded tests")
+    public void testClassTotalAndMean() throws IOException {
+        TestDurations durations = empty();
+        Map<String, Long> samples = new LinkedHashMap<>();
+        samples.put("a.B.one", 1000L);
+        samples.put("a.B.two", 2000L);
+        samples.put("a.BC.three", 6000L);
+        durations.mergeAll(samples);
+
+        Assert.assertEquals(durations.getClassTotal("a.B"), OptionalLong.of(3000));
+        Assert.assertEquals(durations.getClassTotal("a.BC"), OptionalLong.of(6000));
+        Assert.assertFalse(durations.getClassTotal("a.D").isPresent());
+        Assert.assertEquals(durations.getMean(), OptionalLong.of(3000));
+        Assert.assertFalse(empty().getMean().isPresent());
+    }
+
+    @Test(description = "Saved history loads back with the same values")
+    public void testSaveAndLoadRoundTrip() throws IOException {
+        File file = new File(Files.createTempDirectory("durations").toFile(), "nested/durations.properties");
+        TestDurations durations = empty();
+        durations.merge("a.B.c", 1234);
+        durations.save(file);
+
+        Assert.assertEquals(TestDurations.load(file).get("a.B.c"), OptionalLong.of(1234));
+    }
+
+    private static TestDurations empty() throws IOException {
+        return TestDurations.load(new File("does-not-exist/durations.properties"));
+    }
+}
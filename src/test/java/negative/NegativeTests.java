@@ -1,5 +1,7 @@
 package negative;
 
+import api.AccountPool;
+import api.AccountRequirement;
 import base.BaseTest;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -9,6 +11,8 @@ import pages.HomePage;
 import pages.RegisterPage;
 import utils.LoggerUtil;
 
+import java.math.BigDecimal;
+
 /**
  * NegativeTests - Negative and validation test scenarios
  */
@@ -18,7 +22,7 @@ public class NegativeTests extends BaseTest {
     public void testLoginInvalidCredentials() {
         LoggerUtil.info("Starting test: Login with invalid credentials");
         
-        HomePage homePage = new HomePage(driver);
+        HomePage homePage = new HomePage(getDriver());
         
         // Attempt login with invalid credentials
         AccountOverviewPage accountPage = homePage.login("invaliduser", "wrongpassword");
@@ -31,14 +35,14 @@ public class NegativeTests extends BaseTest {
         String errorMessage = homePage.getErrorMessage();
         Assert.assertTrue(errorMessage.length() > 0, "Error message is empty");
         
-        LoggerUtil.info("Invalid credentials error displayed: " + errorMessage);
+        LoggerUtil.info("Invalid credentials error displayed: {}", errorMessage);
     }
 
     @Test(priority = 2, description = "Verify registration with empty required fields")
     public void testRegistrationEmptyRequiredFields() {
         LoggerUtil.info("Starting test: Registration with empty required fields");
         
-        HomePage homePage = new HomePage(driver);
+        HomePage homePage = new HomePage(getDriver());
         
         // Navigate to Register page
         RegisterPage registerPage = homePage.clickRegister();
@@ -58,10 +62,13 @@ public class NegativeTests extends BaseTest {
     public void testBillPaymentInvalidAmountFormat() {
         LoggerUtil.info("Starting test: Bill payment with invalid amount format");
         
-        HomePage homePage = new HomePage(driver);
+        HomePage homePage = new HomePage(getDriver());
         
-        // Login
-        AccountOverviewPage accountPage = homePage.login("john", "demo");
+        // Login as a customer leased to this test, so parallel tests never share balances
+        // (the same requirement as the bill payment test, so both draw from one pool)
+        AccountPool.Lease customer = leaseCustomer(AccountRequirement.accounts(1)
+                .withBalanceAtLeast(new BigDecimal("500")));
+        AccountOverviewPage accountPage = homePage.loginWithCachedSession(customer.getUsername(), customer.getPassword());
         Assert.assertTrue(accountPage.isAccountOverviewPageLoaded(), "Login failed");
         
         // Navigate to Bill Pay
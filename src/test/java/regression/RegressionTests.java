@@ -1,12 +1,19 @@
 package regression;
 
+import api.AccountPool;
+import api.AccountRequirement;
 import base.BaseTest;
 import org.testng.Assert;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 import pages.*;
+import runner.SplitAcrossShards;
+import utils.DatasetReader;
 import utils.LoggerUtil;
+import utils.TestDataReader;
 
-import java.util.Random;
+import java.math.BigDecimal;
+import java.util.Iterator;
 
 /**
  * RegressionTests - Comprehensive regression test scenarios
@@ -17,13 +24,13 @@ public class RegressionTests extends BaseTest {
     public void testRegistrationNewUserSuccess() {
         LoggerUtil.info("Starting test: New user registration success");
         
-        HomePage homePage = new HomePage(driver);
+        HomePage homePage = new HomePage(getDriver());
         
         // Navigate to Register page
         RegisterPage registerPage = homePage.clickRegister();
         
         // Generate unique username
-        String uniqueUsername = "testuser" + new Random().nextInt(100000);
+        String uniqueUsername = TestDataReader.getRegistrationUsername();
         
         // Register new user
         registerPage.registerUser(
@@ -34,7 +41,7 @@ public class RegressionTests extends BaseTest {
             "NY",
             "10001",
             "555-1234",
-            "123-45-6789",
+            TestDataReader.getRegistrationSSN(),
             uniqueUsername,
             "Password123"
         );
@@ -43,17 +50,19 @@ public class RegressionTests extends BaseTest {
         boolean isSuccessful = registerPage.isRegistrationSuccessful();
         Assert.assertTrue(isSuccessful, "User registration was not successful");
         
-        LoggerUtil.info("User registered successfully with username: " + uniqueUsername);
+        LoggerUtil.info("User registered successfully with username: {}", uniqueUsername);
     }
 
     @Test(priority = 2, description = "Verify bill payment successful")
     public void testBillPaymentSuccessful() {
         LoggerUtil.info("Starting test: Bill payment successful");
         
-        HomePage homePage = new HomePage(driver);
+        HomePage homePage = new HomePage(getDriver());
         
-        // Login
-        AccountOverviewPage accountPage = homePage.login("john", "demo");
+        // Login as a customer leased to this test, so parallel tests never share balances; $500 covers the bill
+        AccountPool.Lease customer = leaseCustomer(AccountRequirement.accounts(1)
+                .withBalanceAtLeast(new BigDecimal("500")));
+        AccountOverviewPage accountPage = homePage.loginWithCachedSession(customer.getUsername(), customer.getPassword());
         Assert.assertTrue(accountPage.isAccountOverviewPageLoaded(), "Login failed");
         
         // Navigate to Bill Pay
@@ -84,10 +93,13 @@ public class RegressionTests extends BaseTest {
     public void testTransferFundsInsufficientBalance() {
         LoggerUtil.info("Starting test: Transfer funds insufficient balance validation");
         
-        HomePage homePage = new HomePage(driver);
+        HomePage homePage = new HomePage(getDriver());
         
-        // Login
-        AccountOverviewPage accountPage = homePage.login("john", "demo");
+        // Login as a customer leased to this test, so parallel tests never share balances
+        // $500 per account keeps the 999999 transfer far beyond the balance
+        AccountPool.Lease customer = leaseCustomer(AccountRequirement.accounts(2)
+                .withBalanceAtLeast(new BigDecimal("500")));
+        AccountOverviewPage accountPage = homePage.loginWithCachedSession(customer.getUsername(), customer.getPassword());
         Assert.assertTrue(accountPage.isAccountOverviewPageLoaded(), "Login failed");
         
         // Navigate to Transfer Funds
@@ -109,7 +121,7 @@ public class RegressionTests extends BaseTest {
     public void testRegistrationDuplicateUsername() {
         LoggerUtil.info("Starting test: Registration duplicate username validation");
         
-        HomePage homePage = new HomePage(driver);
+        HomePage homePage = new HomePage(getDriver());
         
         // Navigate to Register page
         RegisterPage registerPage = homePage.clickRegister();
@@ -123,7 +135,7 @@ public class RegressionTests extends BaseTest {
             "NY",
             "10001",
             "555-1234",
-            "123-45-6789",
+            TestDataReader.getRegistrationSSN(),
             "john", // Existing username
             "Password123"
         );
@@ -140,7 +152,7 @@ public class RegressionTests extends BaseTest {
     public void testNavigationMenuLinks() {
         LoggerUtil.info("Starting test: Navigation menu links verification");
         
-        HomePage homePage = new HomePage(driver);
+        HomePage homePage = new HomePage(getDriver());
         
         // Verify all navigation links are displayed
         Assert.assertTrue(homePage.isNavigationLinkDisplayed("About Us"), 
@@ -160,4 +172,43 @@ public class RegressionTests extends BaseTest {
         
         LoggerUtil.info("All navigation menu links verified successfully");
     }
+
+    /**
+     * Rows of testdata/transfers.csv, streamed; in a sharded run every shard runs the test on its own rows.
+     * Kept sequential: TestNG drains a parallel data provider into memory before the first
+     * invocation, while a sequential one is pulled one row at a time. Scale out with shards.
+     */
+    @DataProvider(name = "transfers")
+    public Iterator<Object[]> transfers() {
+        return DatasetReader.rows("testdata/transfers.csv", "amount", "fromAccountIndex", "toAccountIndex");
+    }
+
+    @SplitAcrossShards
+    @Test(priority = 6, dataProvider = "transfers", description = "Verify transfers from the transfers dataset")
+    public void testTransferFundsFromDataset(String amount, String fromAccountIndex, String toAccountIndex) {
+        LoggerUtil.info("Starting test: Transfer funds from dataset - amount: {}", amount);
+        
+        HomePage homePage = new HomePage(getDriver());
+        
+        // Login as a customer leased to this test, so parallel tests never share balances
+        // $500 per account covers every row of transfers.csv (at most $250) in either direction
+        AccountPool.Lease customer = leaseCustomer(AccountRequirement.accounts(2)
+                .withBalanceAtLeast(new BigDecimal("500")));
+        AccountOverviewPage accountPage = homePage.loginWithCachedSession(customer.getUsername(), customer.getPassword());
+        Assert.assertTrue(accountPage.isAccountOverviewPageLoaded(), "Login failed");
+        
+        // Navigate to Transfer Funds
+        TransferFundsPage transferPage = accountPage.clickTransferFunds();
+        Assert.assertTrue(transferPage.isTransferFundsPageLoaded(), 
+                         "Transfer Funds page did not load");
+        
+        // Transfer funds
+        transferPage.transferFunds(amount, fromAccountIndex, toAccountIndex);
+        
+        // Verify transfer success
+        boolean isSuccessful = transferPage.isTransferSuccessful();
+        Assert.assertTrue(isSuccessful, "Transfer of " + amount + " was not successful");
+        
+        LoggerUtil.info("Funds transferred successfully from dataset row");
+    }
 }
@@ -0,0 +1,189 @@
+package runner;
+
+import listeners.TestDurations;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ShardPlannerTest - Unit tests for longest-first shard assignment
+ */
+public class ShardPlannerTest {
+
+    @Test(description = "Longest unit goes first, each to the lightest shard")
+    public void testLongestProcessingTimeAssignment() throws IOException {
+        Map<String, Long> durations = new LinkedHashMap<>();
+        durations.put("a.Tests.one", 8000L);
+        durations.put("a.Tests.two", 7000L);
+        durations.put("a.Tests.three", 6000L);
+        durations.put("a.Tests.four", 5000L);
+        durations.put("a.Tests.five", 4000L);
+
+        List<ShardPlanner.Shard> shards = planner(durations)
+                .plan(suite("a.Tests", "one", "two", "three", "four", "five"), 2);
+
+        // 8 -> 0, 7 -> 1, 6 -> 1 (13), 5 -> 0 (13), 4 -> 0 on the lower index (17)
+        Assert.assertEquals(loads(shards), List.of(17000L, 13000L));
+        Assert.assertEquals(shards.get(0).size(), 3);
+        Assert.assertEquals(shards.get(1).size(), 2);
+    }
+
+    @Test(description = "The longest-first plan beats declaration order on skewed durations")
+    public void testSkewedDurationsBalanced() throws IOException {
+        Map<String, Long> durations = new LinkedHashMap<>();
+        durations.put("a.Tests.s1", 1000L);
+        durations.put("a.Tests.s2", 1000L);
+        durations.put("a.Tests.s3", 1000L);
+        durations.put("a.Tests.s4", 1000L);
+        durations.put("a.Tests.long", 4000L);
+
+        List<ShardPlanner.Shard> shards = planner(durations)
+                .plan(suite("a.Tests", "s1", "s2", "s3", "s4", "long"), 2);
+
+        Assert.assertEquals(loads(shards), List.of(4000L, 4000L));
+    }
+
+    @Test(description = "Tests without history are planned at the mean recorded duration")
+    public void testUnknownTestUsesMeanDuration() throws IOException {
+        Map<String, Long> durations = new LinkedHashMap<>();
+        durations.put("a.Tests.known", 2000L);
+        durations.put("a.Tests.other", 4000L);
+
+        List<ShardPlanner.Shard> shards = planner(durations).plan(suite("a.Tests", "unknown"), 1);
+
+        Assert.assertEquals(shards.get(0).getLoad(), 3000L);
+    }
+
+    @Test(description = "Split methods are placed in every shard")
+    public void testSplitMethodInEveryShard() throws IOException {
+        Map<String, Long> durations = new LinkedHashMap<>();
+        durations.put(TestDurations.key(Sample.class.getName(), "rows"), 3000L);
+        durations.put(TestDurations.key(Sample.class.getName(), "single"), 1000L);
+
+        List<ShardPlanner.Shard> shards = planner(durations).plan(suite(Sample.class.getName()), 3);
+
+        Assert.assertEquals(loads(shards), List.of(4000L, 3000L, 3000L));
+        for (ShardPlanner.Shard shard : shards) {
+            Assert.assertTrue(shard.size() >= 1, "Shard " + shard.getIndex() + " lacks the split method");
+        }
+    }
+
+    @Test(description = "Only non-empty shards are written, each with its own methods")
+    public void testWriteShardsSkipsEmptyShards() throws IOException {
+        File dir = Files.createTempDirectory("shards").toFile();
+        File suiteFile = new File(dir, "suite.xml");
+        Files.write(suiteFile.toPath(), suite(Plain.class.getName(), "one", "two").get(0).toXml()
+                .getBytes(StandardCharsets.UTF_8));
+
+        List<File> files = planner(Collections.emptyMap()).writeShards(suiteFile, 3, new File(dir, "out"));
+
+        Assert.assertEquals(files.size(), 2);
+        String first = new String(Files.readAllBytes(files.get(0).toPath()), StandardCharsets.UTF_8);
+        String second = new String(Files.readAllBytes(files.get(1).toPath()), StandardCharsets.UTF_8);
+        Assert.assertNotEquals(first.contains("\"one\""), second.contains("\"one\""));
+        Assert.assertNotEquals(first.contains("\"two\""), second.contains("\"two\""));
+    }
+
+    @Test(description = "Units from several suites keep their own parameters and listeners")
+    public void testWriteShardsKeepsEachSuitesSettings() throws IOException {
+        File dir = Files.createTempDirectory("shards").toFile();
+        XmlSuite first = suite(Plain.class.getName(), "one").get(0);
+        first.setName("First");
+        first.setParameters(Collections.singletonMap("origin", "first-suite"));
+        first.setListeners(Collections.singletonList("listeners.TestDurationListener"));
+        XmlSuite second = suite(Plain.class.getName(), "two").get(0);
+        second.setName("Second");
+        second.setParameters(Collections.singletonMap("origin", "second-suite"));
+        second.setListeners(Collections.singletonList("listeners.ParallelExecutionListener"));
+        Files.write(new File(dir, "first.xml").toPath(), first.toXml().getBytes(StandardCharsets.UTF_8));
+        Files.write(new File(dir, "second.xml").toPath(), second.toXml().getBytes(StandardCharsets.UTF_8));
+        XmlSuite parent = new XmlSuite();
+        parent.setName("Parent");
+        parent.setSuiteFiles(List.of("first.xml", "second.xml"));
+        File suiteFile = new File(dir, "suite.xml");
+        Files.write(suiteFile.toPath(), parent.toXml().getBytes(StandardCharsets.UTF_8));
+
+        List<File> files = planner(Collections.emptyMap()).writeShards(suiteFile, 1, new File(dir, "out"));
+
+        Assert.assertEquals(files.size(), 1);
+        String shard = new String(Files.readAllBytes(files.get(0).toPath()), StandardCharsets.UTF_8);
+        Assert.assertTrue(shard.contains("first-suite") && shard.contains("second-suite"), shard);
+        Assert.assertTrue(shard.contains("listeners.TestDurationListener")
+                && shard.contains("listeners.ParallelExecutionListener"), shard);
+        Assert.assertTrue(shard.contains("Unit Test (Second)"), shard);
+    }
+
+    @Test(description = "A shard count below one is rejected", expectedExceptions = IllegalArgumentException.class)
+    public void testShardCountMustBePositive() throws IOException {
+        planner(Collections.emptyMap()).plan(suite("a.Tests", "one"), 0);
+    }
+
+    private static ShardPlanner planner(Map<String, Long> samples) throws IOException {
+        TestDurations history = TestDurations.load(new File("does-not-exist/durations.properties"));
+        history.mergeAll(samples);
+        return new ShardPlanner(history);
+    }
+
+    private static List<XmlSuite> suite(String className, String... methods) {
+        XmlSuite suite = new XmlSuite();
+        suite.setName("Unit");
+        XmlTest test = new XmlTest(suite);
+        test.setName("Unit Test");
+        XmlClass xmlClass = new XmlClass(className, false);
+        List<XmlInclude> includes = new ArrayList<>();
+        for (String method : methods) {
+            includes.add(new XmlInclude(method));
+        }
+        xmlClass.setIncludedMethods(includes);
+        test.setXmlClasses(Collections.singletonList(xmlClass));
+        return Collections.singletonList(suite);
+    }
+
+    private static List<Long> loads(List<ShardPlanner.Shard> shards) {
+        List<Long> loads = new ArrayList<>();
+        for (ShardPlanner.Shard shard : shards) {
+            loads.add(shard.getLoad());
+        }
+        return loads;
+    }
+
+    /**
+     * Planned and parsed only, never run
+     */
+    public static class Plain {
+        @Test(enabled = false)
+        public void one() {
+        }
+
+        @Test(enabled = false)
+        public void two() {
+        }
+    }
+
+    /**
+     * Planned by reflection only, never run
+     */
+    public static class Sample {
+        @SplitAcrossShards
+        @Test(enabled = false)
+        public void rows() {
+        }
+
+        @Test(enabled = false)
+        public void single() {
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package smoke;
 
+import api.AccountPool;
+import api.AccountRequirement;
 import base.BaseTest;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -8,6 +10,8 @@ import pages.HomePage;
 import pages.TransferFundsPage;
 import utils.LoggerUtil;
 
+import java.math.BigDecimal;
+
 /**
  * SmokeTests - Critical smoke test scenarios
  */
@@ -17,7 +21,7 @@ public class SmokeTests extends BaseTest {
     public void testHomepageLoadsSuccessfully() {
         LoggerUtil.info("Starting test: Homepage loads successfully");
         
-        HomePage homePage = new HomePage(driver);
+        HomePage homePage = new HomePage(getDriver());
         
         // Verify homepage is loaded
         boolean isLoaded = homePage.isHomePageLoaded();
@@ -27,14 +31,14 @@ public class SmokeTests extends BaseTest {
         String pageTitle = homePage.getPageTitle();
         Assert.assertTrue(pageTitle.contains("ParaBank"), "Page title does not contain 'ParaBank'");
         
-        LoggerUtil.info("Homepage loaded successfully with title: " + pageTitle);
+        LoggerUtil.info("Homepage loaded successfully with title: {}", pageTitle);
     }
 
     @Test(priority = 2, description = "Verify valid user login")
     public void testValidLogin() {
         LoggerUtil.info("Starting test: Valid user login");
         
-        HomePage homePage = new HomePage(driver);
+        HomePage homePage = new HomePage(getDriver());
         
         // Login with valid credentials
         AccountOverviewPage accountPage = homePage.login("john", "demo");
@@ -54,7 +58,7 @@ public class SmokeTests extends BaseTest {
     public void testLogoutFunctionality() {
         LoggerUtil.info("Starting test: Logout functionality");
         
-        HomePage homePage = new HomePage(driver);
+        HomePage homePage = new HomePage(getDriver());
         
         // Login
         AccountOverviewPage accountPage = homePage.login("john", "demo");
@@ -74,10 +78,10 @@ public class SmokeTests extends BaseTest {
     public void testAccountOverviewPageLoads() {
         LoggerUtil.info("Starting test: Account Overview page loads");
         
-        HomePage homePage = new HomePage(driver);
+        HomePage homePage = new HomePage(getDriver());
         
         // Login
-        AccountOverviewPage accountPage = homePage.login("john", "demo");
+        AccountOverviewPage accountPage = homePage.loginWithCachedSession("john", "demo");
         
         // Verify page is loaded
         Assert.assertTrue(accountPage.isAccountOverviewPageLoaded(), 
@@ -86,6 +90,12 @@ public class SmokeTests extends BaseTest {
         // Verify account table is present
         Assert.assertTrue(accountPage.isAccountTableDisplayed(), 
                          "Account table is not displayed");
+
+        // Verify the listed balances add up to the total
+        AccountOverviewPage.AccountSummary summary = accountPage.getAccountSummary();
+        Assert.assertFalse(summary.getAccounts().isEmpty(), "No accounts listed");
+        Assert.assertEquals(summary.getBalanceSum().compareTo(summary.getTotal()), 0,
+                         "Account balances do not add up to the total: " + summary);
         
         LoggerUtil.info("Account Overview page loaded successfully");
     }
@@ -94,10 +104,12 @@ public class SmokeTests extends BaseTest {
     public void testTransferFundsValidTransaction() {
         LoggerUtil.info("Starting test: Transfer funds valid transaction");
         
-        HomePage homePage = new HomePage(driver);
+        HomePage homePage = new HomePage(getDriver());
         
-        // Login
-        AccountOverviewPage accountPage = homePage.login("john", "demo");
+        // Login as a customer leased to this test, so parallel tests never share balances; $500 covers the transfer
+        AccountPool.Lease customer = leaseCustomer(AccountRequirement.accounts(2)
+                .withBalanceAtLeast(new BigDecimal("500")));
+        AccountOverviewPage accountPage = homePage.loginWithCachedSession(customer.getUsername(), customer.getPassword());
         Assert.assertTrue(accountPage.isAccountOverviewPageLoaded(), "Login failed");
         
         // Navigate to Transfer Funds
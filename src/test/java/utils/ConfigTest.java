@@ -0,0 +1,171 @@
+package utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.Function;
+
+/**
+ * ConfigTest - Unit tests for configuration layering, environment mapping and validation
+ */
+public class ConfigTest {
+
+    @Test(description = "Later layers win: file, profile, environment, then -D")
+    public void testLayeringOrder() {
+        Properties file = properties("base.url", "https://file.example/", "browser", "chrome",
+                "explicit.wait", "10", "config.profile", "ci");
+        Function<String, Properties> profiles = profiles("ci",
+                properties("explicit.wait", "20", "browser", "firefox", "implicit.wait", "5"));
+        Map<String, String> environment = map("explicit.wait", "30", "implicit.wait", "6");
+        Map<String, String> system = map("explicit.wait", "40");
+
+        Config config = ConfigReader.resolve(file, profiles, environment, system);
+
+        Assert.assertEquals(config.getExplicitWait(), Duration.ofSeconds(40));
+        Assert.assertEquals(config.getImplicitWait(), Duration.ofSeconds(6));
+        Assert.assertEquals(config.getString("browser"), "firefox");
+        Assert.assertEquals(config.getBaseUrl(), "https://file.example/");
+
+        Config withoutSystem = ConfigReader.resolve(file, profiles, environment, Collections.emptyMap());
+        Assert.assertEquals(withoutSystem.getExplicitWait(), Duration.ofSeconds(30));
+    }
+
+    @Test(description = "The profile may be selected from the environment or -D, -D winning")
+    public void testProfileSelectedByOuterLayers() {
+        Properties file = properties("base.url", "https://file.example/", "browser", "chrome");
+        Map<String, Properties> byName = new HashMap<>();
+        byName.put("ci", properties("browser", "firefox"));
+        byName.put("edge", properties("browser", "edge"));
+
+        Config fromEnvironment = ConfigReader.resolve(file, byName::get,
+                map("config.profile", "ci"), Collections.emptyMap());
+        Assert.assertEquals(fromEnvironment.getString("browser"), "firefox");
+        Assert.assertEquals(fromEnvironment.getString("config.profile"), "ci");
+
+        Config fromSystem = ConfigReader.resolve(file, byName::get,
+                map("config.profile", "ci"), map("config.profile", " edge "));
+        Assert.assertEquals(fromSystem.getString("browser"), "edge");
+        Assert.assertEquals(fromSystem.getString("config.profile"), "edge");
+    }
+
+    @Test(description = "PARABANK_ variables map to dotted lower-case keys; others are ignored")
+    public void testEnvironmentVariableMapping() {
+        Map<String, String> variables = map("PARABANK_BASE_URL", "https://env.example/",
+                "PARABANK_DRIVER_POOL_ENABLED", "true", "PATH", "/usr/bin", "parabank_browser", "edge");
+
+        Map<String, String> values = ConfigReader.fromEnvironment(variables);
+
+        Assert.assertEquals(values, map("base.url", "https://env.example/", "driver.pool.enabled", "true"));
+    }
+
+    @Test(description = "Every invalid or missing value is reported in one failure")
+    public void testValidationReportsEveryProblem() {
+        Map<String, String> values = map("browser", "opera", "explicit.wait", "soon",
+                "local.server.port", "70000", "driver.offline", "maybe");
+        try {
+            Config.of(values);
+            Assert.fail("Invalid configuration was accepted");
+        } catch (RuntimeException e) {
+            String message = e.getMessage();
+            Assert.assertTrue(message.startsWith("Invalid configuration:"), message);
+            Assert.assertTrue(message.contains("base.url is required"), message);
+            Assert.assertTrue(message.contains("browser=opera"), message);
+            Assert.assertTrue(message.contains("explicit.wait=soon"), message);
+            Assert.assertTrue(message.contains("local.server.port=70000"), message);
+            Assert.assertTrue(message.contains("driver.offline=maybe"), message);
+        }
+    }
+
+    @Test(description = "Defaults fill unset keys and unknown keys are kept as text")
+    public void testDefaultsAndUnknownKeys() {
+        Config config = Config.of(map("base.url", "https://app.example/", "browser", "chrome",
+                "custom.flag", "on", "implicit.wait", " "));
+
+        Assert.assertEquals(config.getImplicitWait(), Duration.ofSeconds(15));
+        Assert.assertEquals(config.getInt("driver.pool.max.uses"), 25);
+        Assert.assertEquals(config.getString("custom.flag"), "on");
+        Assert.assertFalse(Config.isKnownKey("custom.flag"));
+    }
+
+    @Test(description = "with() returns a validated copy and leaves the original alone")
+    public void testWithDerivesValidatedCopy() {
+        Config original = Config.of(map("base.url", "https://app.example/", "browser", "chrome"));
+
+        Config changed = original.with("browser", "firefox");
+        Assert.assertEquals(changed.getString("browser"), "firefox");
+        Assert.assertEquals(original.getString("browser"), "chrome");
+
+        Config several = original.with(map("explicit.wait", "7", "browser", "edge"));
+        Assert.assertEquals(several.getExplicitWait(), Duration.ofSeconds(7));
+        Assert.assertEquals(several.getString("browser"), "edge");
+
+        try {
+            original.with("explicit.wait", "0");
+            Assert.fail("Out of range override was accepted");
+        } catch (RuntimeException e) {
+            Assert.assertTrue(e.getMessage().contains("explicit.wait=0"), e.getMessage());
+        }
+    }
+
+    @Test(description = "A window size other than width,height fails when the snapshot is built")
+    public void testWindowSizeFormatValidated() {
+        Config config = Config.of(map("base.url", "https://app.example/", "browser", "chrome",
+                "browser.window.size", "1366,768"));
+        Assert.assertEquals(config.getString("browser.window.size"), "1366,768");
+
+        try {
+            config.with("browser.window.size", "1920x1080");
+            Assert.fail("Malformed window size was accepted");
+        } catch (RuntimeException e) {
+            Assert.assertTrue(e.getMessage().contains("browser.window.size=1920x1080: expected width,height"),
+                    e.getMessage());
+        }
+    }
+
+    @Test(description = "Thread overrides apply to the calling thread until cleared")
+    public void testThreadOverridesClearedPerThread() throws InterruptedException {
+        String global = ConfigReader.get().getString("browser");
+        String other = "chrome".equals(global) ? "firefox" : "chrome";
+        try {
+            ConfigReader.overrideForThread("browser", other);
+            Assert.assertEquals(ConfigReader.get().getString("browser"), other);
+
+            String[] seen = new String[1];
+            Thread worker = new Thread(() -> seen[0] = ConfigReader.get().getString("browser"));
+            worker.start();
+            worker.join();
+            Assert.assertEquals(seen[0], global);
+        } finally {
+            ConfigReader.clearThreadOverrides();
+        }
+        Assert.assertEquals(ConfigReader.get().getString("browser"), global);
+    }
+
+    private static Map<String, String> map(String... keysAndValues) {
+        Map<String, String> map = new HashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            map.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return map;
+    }
+
+    private static Properties properties(String... keysAndValues) {
+        Properties properties = new Properties();
+        properties.putAll(map(keysAndValues));
+        return properties;
+    }
+
+    private static Function<String, Properties> profiles(String name, Properties profile) {
+        return requested -> {
+            if (!requested.equals(name)) {
+                throw new RuntimeException("Unexpected profile: " + requested);
+            }
+            return profile;
+        };
+    }
+}
@@ -0,0 +1,109 @@
+package utils;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * DatasetReaderTest - Unit tests for streaming and sharding CSV and JSONL datasets
+ */
+public class DatasetReaderTest {
+    private static final int[] SHARD_COUNTS = {1, 3, 7};
+
+    @DataProvider(name = "datasets")
+    public Object[][] datasets() {
+        StringBuilder csv = new StringBuilder("id,amount,note\n");
+        StringBuilder crlf = new StringBuilder("id,amount,note\r\n");
+        StringBuilder blanks = new StringBuilder("id,amount,note\n\n");
+        StringBuilder jsonl = new StringBuilder();
+        List<String> ids = new ArrayList<>();
+        for (int i = 1; i <= 25; i++) {
+            String id = "r" + i;
+            ids.add(id);
+            // Rows of uneven length so shard boundaries land mid-line
+            String note = i % 4 == 0 ? "\"quoted, with comma " + "x".repeat(i) + "\"" : "n" + i;
+            csv.append(id).append(',').append(i * 10).append(',').append(note).append('\n');
+            crlf.append(id).append(',').append(i * 10).append(',').append(note).append("\r\n");
+            blanks.append(id).append(',').append(i * 10).append(',').append(note).append(i % 3 == 0 ? "\n\n\n" : "\n");
+            jsonl.append("{\"id\": \"").append(id).append("\", \"amount\": ").append(i * 10)
+                    .append(", \"note\": \"").append("y".repeat(i % 5)).append("\"}\n");
+        }
+        // No trailing newline after the last record
+        String csvNoTrailingNewline = csv.substring(0, csv.length() - 1);
+
+        return new Object[][] {
+                {"lf.csv", csv.toString(), ids},
+                {"crlf.csv", crlf.toString(), ids},
+                {"blank-lines.csv", blanks.toString(), ids},
+                {"no-trailing-newline.csv", csvNoTrailingNewline, ids},
+                {"header-only.csv", "id,amount,note\n", Collections.emptyList()},
+                {"header-only-crlf.csv", "id,amount,note\r\n", Collections.emptyList()},
+                {"single-row.csv", "id,amount,note\nr1,10,n1\n", Collections.singletonList("r1")},
+                {"rows.jsonl", jsonl.toString(), ids},
+                {"blank-lines.jsonl", "\n" + jsonl.toString().replace("\n", "\n\r\n"), ids},
+                {"empty.jsonl", "", Collections.emptyList()},
+        };
+    }
+
+    @Test(dataProvider = "datasets", description = "1, 3 and 7 shards together read every row exactly once")
+    public void testShardsCoverEveryRowOnce(String name, String content, List<String> expectedIds) throws IOException {
+        Path file = write(name, content);
+        for (int shardCount : SHARD_COUNTS) {
+            List<String> seen = new ArrayList<>();
+            for (int shard = 0; shard < shardCount; shard++) {
+                try (DatasetReader reader = DatasetReader.rows(file.toString(), shard, shardCount, "id", "amount")) {
+                    while (reader.hasNext()) {
+                        Object[] row = reader.next();
+                        String id = (String) row[0];
+                        Assert.assertEquals(row[1], String.valueOf(Integer.parseInt(id.substring(1)) * 10),
+                                name + " row " + id + " in shard " + shard + " of " + shardCount);
+                        seen.add(id);
+                    }
+                }
+            }
+            List<String> sorted = new ArrayList<>(seen);
+            Collections.sort(sorted);
+            List<String> expected = new ArrayList<>(expectedIds);
+            Collections.sort(expected);
+            Assert.assertEquals(sorted, expected, name + " split " + shardCount + " ways");
+        }
+    }
+
+    @Test(description = "Quoted CSV fields keep commas and escaped quotes, CRLF is stripped")
+    public void testCsvFieldParsing() throws IOException {
+        Path file = write("quoted.csv", "a,b\r\n\"x, y\",\"say \"\"hi\"\"\"\r\n");
+
+        try (DatasetReader reader = DatasetReader.rows(file.toString(), "b", "a")) {
+            Assert.assertEquals(reader.next(), new Object[] {"say \"hi\"", "x, y"});
+            Assert.assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test(description = "A missing column fails when the dataset is opened",
+            expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*no column missing.*")
+    public void testMissingColumnRejected() throws IOException {
+        DatasetReader.rows(write("columns.csv", "a,b\n1,2\n").toString(), "missing");
+    }
+
+    @Test(description = "An invalid shard is rejected", expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidShardRejected() throws IOException {
+        DatasetReader.rows(write("shard.csv", "a\n1\n").toString(), 3, 3, "a");
+    }
+
+    private static Path write(String name, String content) throws IOException {
+        Path dir = Files.createTempDirectory("dataset");
+        Path file = dir.resolve(name);
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        file.toFile().deleteOnExit();
+        dir.toFile().deleteOnExit();
+        return file;
+    }
+}
@@ -0,0 +1,119 @@
+package utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+
+/**
+ * UniqueDataGeneratorTest - Unit tests for collision-free generated identities
+ */
+public class UniqueDataGeneratorTest {
+    private static final int THREADS = 8;
+    private static final int PER_THREAD = 5_000;
+
+    @Test(description = "Tokens from several threads never repeat and split back into their parts")
+    public void testTokensUniqueAndParseable() throws InterruptedException {
+        List<List<String>> tokensByThread = generate(THREADS, PER_THREAD, UniqueDataGenerator::token);
+
+        Set<String> all = new HashSet<>();
+        Set<Long> workers = new HashSet<>();
+        String runId = UniqueDataGenerator.getRunId();
+        for (List<String> tokens : tokensByThread) {
+            Long worker = null;
+            long previousCounter = 0;
+            for (String token : tokens) {
+                Assert.assertTrue(all.add(token), "Duplicate token " + token);
+                Assert.assertTrue(token.matches("[0-9a-z]+"), token);
+                Assert.assertTrue(token.startsWith(runId), token);
+
+                int[] position = {runId.length()};
+                Assert.assertEquals(readLengthPrefixed(token, position), (long) Integer.getInteger("shard.index", 0));
+                long tokenWorker = readLengthPrefixed(token, position);
+                long counter = Long.parseLong(token.substring(position[0]), Character.MAX_RADIX);
+
+                if (worker == null) {
+                    worker = tokenWorker;
+                }
+                Assert.assertEquals(tokenWorker, (long) worker, "Worker id changed within one thread");
+                Assert.assertTrue(counter > previousCounter, "Counter did not increase in " + token);
+                previousCounter = counter;
+            }
+            Assert.assertTrue(workers.add(worker), "Two threads shared worker id " + worker);
+        }
+        Assert.assertEquals(all.size(), THREADS * PER_THREAD);
+    }
+
+    @Test(description = "SSNs and account references are well-formed and unique within the run")
+    public void testNumericValuesUniqueWithinRun() throws InterruptedException {
+        Set<String> ssns = new HashSet<>();
+        for (List<String> values : generate(THREADS, PER_THREAD, UniqueDataGenerator::ssn)) {
+            for (String ssn : values) {
+                Assert.assertTrue(ssn.matches("\\d{3}-\\d{2}-\\d{4}"), ssn);
+                Assert.assertTrue(ssns.add(ssn), "Duplicate SSN " + ssn);
+            }
+        }
+        Set<String> accounts = new HashSet<>();
+        for (List<String> values : generate(THREADS, PER_THREAD, UniqueDataGenerator::accountReference)) {
+            for (String account : values) {
+                Assert.assertTrue(account.matches("\\d{9}"), account);
+                Assert.assertTrue(accounts.add(account), "Duplicate account reference " + account);
+            }
+        }
+    }
+
+    @Test(description = "Templates resolve to generated values; unknown names resolve to null")
+    public void testGenerateTemplates() {
+        Assert.assertTrue(UniqueDataGenerator.generate("username").startsWith("u" + UniqueDataGenerator.getRunId()));
+        Assert.assertTrue(UniqueDataGenerator.generate("payee").startsWith("Payee "));
+        Assert.assertEquals(UniqueDataGenerator.generate("run"), UniqueDataGenerator.getRunId());
+        Assert.assertNull(UniqueDataGenerator.generate("unknown"));
+    }
+
+    /**
+     * Read one length-prefixed base 36 number at position, advancing it
+     */
+    private static long readLengthPrefixed(String token, int[] position) {
+        int length = Character.digit(token.charAt(position[0]), Character.MAX_RADIX);
+        int start = position[0] + 1;
+        position[0] = start + length;
+        return Long.parseLong(token.substring(start, position[0]), Character.MAX_RADIX);
+    }
+
+    /**
+     * Generate values on fresh threads started together; one list per thread, in generation order
+     */
+    private static List<List<String>> generate(int threads, int perThread, Supplier<String> generator)
+            throws InterruptedException {
+        List<List<String>> results = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            List<String> values = new ArrayList<>(perThread);
+            results.add(values);
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    values.add(generator.get());
+                }
+            });
+            workers.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : workers) {
+            thread.join();
+        }
+        return results;
+    }
+}